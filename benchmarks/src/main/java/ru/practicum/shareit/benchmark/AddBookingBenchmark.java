@@ -0,0 +1,40 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Создание бронирования вместе с проверкой пересечения с подтверждёнными бронированиями.
+ * Каждый вызов добавляет строку в bookings, поэтому таблица растёт в ходе замера.
+ * Новые бронирования начинаются позже сгенерированных, чтобы проверка пересечения не отклоняла их.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddBookingBenchmark {
+
+    @Benchmark
+    public BookingDto addBooking(ShareItState shareIt) {
+        long itemId = shareIt.randomItemId();
+        while (!shareIt.seeder.isAvailable(itemId)) {
+            itemId = shareIt.randomItemId();
+        }
+        long bookerId = shareIt.seeder.anotherUser(shareIt.seeder.ownerOf(itemId));
+        LocalDateTime start = LocalDateTime.now().plusDays(ThreadLocalRandom.current().nextInt(365) + 100);
+        return shareIt.bookingService.addBooking(bookerId,
+                new BookingRequestDto(itemId, start, start.plusDays(2), null));
+    }
+}
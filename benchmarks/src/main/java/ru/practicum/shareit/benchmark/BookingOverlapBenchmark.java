@@ -0,0 +1,155 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка пересечения нового бронирования с подтверждёнными бронированиями одной вещи
+ * при 10 тыс., 100 тыс. и 1 млн бронирований этой вещи:
+ * scan - загрузка всех бронирований вещи с вещью и автором и перебор, как было до индекса;
+ * sortedIntervals - поиск floorEntry по отсортированным интервалам в памяти;
+ * existsQuery - запрос exists по индексу bookings(item_id, status, start_date, end_date), как в
+ * JpaBookingOverlapChecker на H2; на PostgreSQL проверка идёт по GiST-индексу ix_bookings_approved_period.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BookingOverlapBenchmark {
+
+    @Benchmark
+    public boolean scan(ItemBookingsState state) {
+        LocalDateTime start = state.randomStart();
+        LocalDateTime end = start.plusMinutes(30);
+        EntityManager entityManager = state.entityManagerFactory.createEntityManager();
+        try {
+            List<Booking> itemBookings = entityManager.createQuery(
+                            "select b from Booking b where b.item.id = :itemId", Booking.class)
+                    .setParameter("itemId", ItemBookingsState.ITEM_ID)
+                    .setHint("javax.persistence.fetchgraph", entityManager.getEntityGraph("booking_entity-graph"))
+                    .getResultList();
+            for (Booking booking : itemBookings) {
+                if (BookingStatus.APPROVED.equals(booking.getStatus())
+                        && !(start.isAfter(booking.getEnd()) || end.isBefore(booking.getStart()))) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public boolean sortedIntervals(ItemBookingsState state) {
+        LocalDateTime start = state.randomStart();
+        Map.Entry<LocalDateTime, LocalDateTime> candidate = state.approvedIntervals.floorEntry(start.plusMinutes(30));
+        return candidate != null && !candidate.getValue().isBefore(start);
+    }
+
+    @Benchmark
+    public boolean existsQuery(ItemBookingsState state) {
+        LocalDateTime start = state.randomStart();
+        return state.bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(
+                ItemBookingsState.ITEM_ID, BookingStatus.APPROVED, start.plusMinutes(30), start);
+    }
+
+    /**
+     * Одна вещь с bookingsPerItem бронированиями. Бронирование i занимает час, начиная с часа 2i
+     * от начала отсчёта, так что интервалы не пересекаются; подтверждены три из пяти.
+     * Запрос - получасовой интервал в случайном месте диапазона, почти половина запросов
+     * пересекается с подтверждённым бронированием.
+     */
+    @State(Scope.Benchmark)
+    public static class ItemBookingsState {
+        static final long ITEM_ID = 1;
+        private static final int BATCH_SIZE = 1000;
+
+        @Param({"10000", "100000", "1000000"})
+        public int bookingsPerItem;
+
+        BookingRepository bookingRepository;
+        EntityManagerFactory entityManagerFactory;
+        final NavigableMap<LocalDateTime, LocalDateTime> approvedIntervals = new TreeMap<>();
+        private final LocalDateTime origin = LocalDateTime.now().plusYears(1).withNano(0);
+        private ConfigurableApplicationContext context;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(ShareItServer.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("benchmark")
+                    .run();
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.update("insert into users (id, name, email) values (1, 'Владелец', 'owner@benchmark.ru'), "
+                    + "(2, 'Арендатор', 'booker@benchmark.ru')");
+            jdbcTemplate.update("insert into items (id, name, description, is_available, owner_id) "
+                    + "values (?, 'Дрель', 'Популярная дрель', true, 1)", ITEM_ID);
+            List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < bookingsPerItem; i++) {
+                LocalDateTime start = origin.plusHours(2L * i);
+                LocalDateTime end = start.plusHours(1);
+                boolean approved = i % 5 < 3;
+                if (approved) {
+                    approvedIntervals.put(start, end);
+                }
+                rows.add(new Object[]{i + 1, Timestamp.valueOf(start), Timestamp.valueOf(end), ITEM_ID, 2,
+                        approved ? "APPROVED" : "WAITING", BookingPhase.FUTURE.name()});
+                if (rows.size() == BATCH_SIZE) {
+                    insertBookings(jdbcTemplate, rows);
+                }
+            }
+            insertBookings(jdbcTemplate, rows);
+            bookingRepository = context.getBean(BookingRepository.class);
+            entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        LocalDateTime randomStart() {
+            return origin.plusMinutes(ThreadLocalRandom.current().nextLong(2L * bookingsPerItem * 60));
+        }
+
+        private static void insertBookings(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+            jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status, "
+                    + "phase) values (?, ?, ?, ?, ?, ?, ?)", rows);
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final BookingCursor FIRST_PAGE = new BookingCursor(LocalDateTime.of(9999, 1, 1, 0, 0),
+            Long.MAX_VALUE);
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    public BookingState state;
+
+    @Benchmark
+    public List<BookingDto> getUserBookings(ShareItState shareIt) {
+        return shareIt.bookingService.getUserBookings(shareIt.randomUserId(), state, page());
+    }
+
+    @Benchmark
+    public List<BookingDto> getUserBookingsAfterCursor(ShareItState shareIt) {
+        return shareIt.bookingService.getUserBookings(shareIt.randomUserId(), state, FIRST_PAGE, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingDto> getBookingsForAllUserItems(ShareItState shareIt) {
+        return shareIt.bookingService.getBookingsForAllUserItems(shareIt.randomUserId(), state, page());
+    }
+
+    @Benchmark
+    public List<BookingDto> getBookingsForAllUserItemsAfterCursor(ShareItState shareIt) {
+        return shareIt.bookingService.getBookingsForAllUserItems(shareIt.randomUserId(), state, FIRST_PAGE,
+                PAGE_SIZE);
+    }
+
+    private static PageRequest page() {
+        return PageRequest.of(0, PAGE_SIZE).withSort(Sort.Direction.DESC, "start", "id");
+    }
+}
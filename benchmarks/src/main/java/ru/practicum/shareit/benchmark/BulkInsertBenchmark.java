@@ -0,0 +1,84 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Массовая вставка через saveAll в одной транзакции. Результат - строк в секунду:
+ * с id из последовательности Hibernate отправляет вставки пакетами JDBC, с IDENTITY - по одной.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(BulkInsertBenchmark.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkInsertBenchmark {
+    static final int ROWS = 1000;
+    private long sequence;
+
+    @Benchmark
+    public List<User> insertUsers(ShareItState shareIt) {
+        List<User> users = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            User user = new User();
+            user.setName("Новый пользователь");
+            user.setEmail("bulk" + sequence++ + "@benchmark.ru");
+            users.add(user);
+        }
+        return shareIt.userRepository.saveAll(users);
+    }
+
+    @Benchmark
+    public List<Item> insertItems(ShareItState shareIt) {
+        User owner = shareIt.userRepository.getReferenceById(shareIt.randomUserId());
+        List<Item> items = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Item item = new Item();
+            item.setName("Дрель " + i);
+            item.setDescription("Новая дрель");
+            item.setAvailable(true);
+            item.setOwner(owner);
+            items.add(item);
+        }
+        return shareIt.itemRepository.saveAll(items);
+    }
+
+    @Benchmark
+    public List<Booking> insertBookings(ShareItState shareIt) {
+        long itemId = shareIt.randomItemId();
+        Item item = shareIt.itemRepository.getReferenceById(itemId);
+        long bookerId = shareIt.seeder.anotherUser(shareIt.seeder.ownerOf(itemId));
+        User booker = shareIt.userRepository.getReferenceById(bookerId);
+        LocalDateTime start = LocalDateTime.now().plusYears(1);
+        List<Booking> bookings = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Booking booking = new Booking();
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(2));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(BookingStatus.WAITING);
+            bookings.add(booking);
+        }
+        return shareIt.bookingRepository.saveAll(bookings);
+    }
+}
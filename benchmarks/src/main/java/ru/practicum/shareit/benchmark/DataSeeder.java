@@ -0,0 +1,123 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingPhase;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет пустую БД предсказуемым набором данных. Идентификаторы идут подряд с 1,
+ * поэтому владельца вещи и её доступность можно вычислить, не обращаясь к БД.
+ * У первых heavyOwners пользователей, кроме обычных вещей, есть ещё по itemsPerHeavyOwner вещей,
+ * их id идут после обычных. После заполнения последовательности id сдвигаются за вставленные строки.
+ */
+public class DataSeeder {
+    static final String[] ITEM_NAMES = {"Дрель", "Перфоратор", "Лыжи", "Палатка", "Велосипед", "Самокат",
+            "Гитара", "Проектор"};
+    private static final int ITEMS_PER_USER = 5;
+    private static final int BOOKINGS_PER_ITEM = 4;
+    private static final int BATCH_SIZE = 1000;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int users;
+    private final int heavyOwners;
+    private final int itemsPerHeavyOwner;
+    private final Random random = new Random(42);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    public DataSeeder(JdbcTemplate jdbcTemplate, int users) {
+        this(jdbcTemplate, users, 0, 0);
+    }
+
+    public DataSeeder(JdbcTemplate jdbcTemplate, int users, int heavyOwners, int itemsPerHeavyOwner) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.users = users;
+        this.heavyOwners = heavyOwners;
+        this.itemsPerHeavyOwner = itemsPerHeavyOwner;
+    }
+
+    public int getItemCount() {
+        return users * ITEMS_PER_USER + heavyOwners * itemsPerHeavyOwner;
+    }
+
+    public long ownerOf(long itemId) {
+        long regularItems = (long) users * ITEMS_PER_USER;
+        if (itemId > regularItems) {
+            return (itemId - regularItems - 1) / itemsPerHeavyOwner + 1;
+        }
+        return (itemId - 1) % users + 1;
+    }
+
+    public boolean isAvailable(long itemId) {
+        return itemId % 10 != 0;
+    }
+
+    public void seed() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= users; i++) {
+            rows.add(new Object[]{i, "Пользователь " + i, "user" + i + "@benchmark.ru"});
+        }
+        insert("users", "insert into users (id, name, email) values (?, ?, ?)", rows);
+
+        for (int i = 1; i <= users; i++) {
+            rows.add(new Object[]{i, "Нужна вещь номер " + i, i, timestamp(now.minusHours(i))});
+        }
+        insert("requests", "insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)",
+                rows);
+
+        for (long id = 1; id <= getItemCount(); id++) {
+            String name = ITEM_NAMES[(int) (id % ITEM_NAMES.length)];
+            Long requestId = id % 7 == 0 ? (long) random.nextInt(users) + 1 : null;
+            rows.add(new Object[]{id, name + " " + id, "Описание: " + name.toLowerCase() + ", модель " + id,
+                    isAvailable(id), ownerOf(id), requestId});
+        }
+        insert("items", "insert into items (id, name, description, is_available, owner_id, item_request_id) " +
+                "values (?, ?, ?, ?, ?, ?)", rows);
+
+        for (long itemId = 1; itemId <= getItemCount(); itemId++) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = now.plusHours(random.nextInt(24 * 120) - 24 * 60);
+                LocalDateTime end = start.plusDays(random.nextInt(5) + 1);
+                int status = random.nextInt(20);
+                rows.add(new Object[]{rows.size() + 1, timestamp(start), timestamp(end), itemId,
+                        anotherUser(ownerOf(itemId)),
+                        status < 12 ? "APPROVED" : status < 17 ? "WAITING" : "REJECTED",
+                        BookingPhase.of(start, end, now).name()});
+            }
+        }
+        insert("bookings", "insert into bookings (id, start_date, end_date, item_id, booker_id, status, phase) " +
+                "values (?, ?, ?, ?, ?, ?, ?)", rows);
+
+        for (long itemId = 1; itemId <= getItemCount(); itemId += 2) {
+            rows.add(new Object[]{rows.size() + 1, "Всё отлично", itemId, anotherUser(ownerOf(itemId)),
+                    timestamp(now.minusDays(1))});
+        }
+        insert("comments", "insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)",
+                rows);
+    }
+
+    public long anotherUser(long userId) {
+        return userId % users + 1;
+    }
+
+    /**
+     * Вставляет строки с id от 1 до rows.size() и перезапускает последовательность table_seq так,
+     * чтобы первый блок id, выданный Hibernate, начинался за последней строкой.
+     */
+    private void insert(String table, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        jdbcTemplate.execute("alter sequence " + table + "_seq restart with " + (rows.size() + ALLOCATION_SIZE));
+        rows.clear();
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return Timestamp.valueOf(dateTime);
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    @Benchmark
+    public List<ItemDto> getUserItems(ShareItState shareIt) {
+        return shareIt.itemService.getUserItems(shareIt.randomUserId(),
+                PageRequest.of(0, 20).withSort(Sort.Direction.ASC, "id"));
+    }
+
+    @Benchmark
+    public ItemDto getItemByOwner(ShareItState shareIt) {
+        long itemId = shareIt.randomItemId();
+        return shareIt.itemService.getItem(shareIt.seeder.ownerOf(itemId), itemId);
+    }
+
+    @Benchmark
+    public ItemDto getItemByOtherUser(ShareItState shareIt) {
+        long itemId = shareIt.randomItemId();
+        return shareIt.itemService.getItem(shareIt.seeder.anotherUser(shareIt.seeder.ownerOf(itemId)), itemId);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Первая страница GET /bookings/owner (state=ALL) для владельца с itemsPerOwner вещами:
+ * ownerJoin - текущий путь, один запрос с условием items.owner_id;
+ * itemIdsInList - прежний путь: сначала id всех вещей владельца, затем бронирования по item_id in (...).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class OwnerBookingsBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Benchmark
+    public List<BookingDto> ownerJoin(HeavyOwnersState state) {
+        return state.bookingService.getBookingsForAllUserItems(state.randomHeavyOwnerId(), BookingState.ALL,
+                PageRequest.of(0, PAGE_SIZE).withSort(Sort.Direction.DESC, "start", "id"));
+    }
+
+    @Benchmark
+    public List<BookingDto> itemIdsInList(HeavyOwnersState state) {
+        EntityManager entityManager = state.entityManagerFactory.createEntityManager();
+        try {
+            List<Long> itemIds = entityManager.createQuery(
+                            "select i.id from Item i where i.owner.id = :ownerId", Long.class)
+                    .setParameter("ownerId", state.randomHeavyOwnerId())
+                    .getResultList();
+            return entityManager.createQuery(BookingRepository.BOOKING_DTO + " where i.id in :itemIds "
+                            + "order by b.start desc, b.id desc", BookingDto.class)
+                    .setParameter("itemIds", itemIds)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Кроме обычных данных, у HEAVY_OWNERS первых пользователей по itemsPerOwner вещей
+     * с теми же четырьмя бронированиями на вещь.
+     */
+    @State(Scope.Benchmark)
+    public static class HeavyOwnersState extends ShareItState {
+        static final int HEAVY_OWNERS = 3;
+
+        @Param({"10", "1000", "10000", "50000"})
+        public int itemsPerOwner;
+
+        @Override
+        protected DataSeeder createSeeder(JdbcTemplate jdbcTemplate) {
+            return new DataSeeder(jdbcTemplate, users, HEAVY_OWNERS, itemsPerOwner);
+        }
+
+        long randomHeavyOwnerId() {
+            return ThreadLocalRandom.current().nextLong(1, HEAVY_OWNERS + 1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingCountersService;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Контекст сервера на H2 с заполненными таблицами. Размер данных задаётся параметром users,
+ * например -p users=100000.
+ */
+@State(Scope.Benchmark)
+public class ShareItState {
+    @Param("1000")
+    public int users;
+
+    public BookingService bookingService;
+    public ItemService itemService;
+    public ItemRequestService itemRequestService;
+    public UserRepository userRepository;
+    public ItemRepository itemRepository;
+    public BookingRepository bookingRepository;
+    public EntityManagerFactory entityManagerFactory;
+    public DataSeeder seeder;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("benchmark")
+                .run();
+        seeder = createSeeder(context.getBean(JdbcTemplate.class));
+        seeder.seed();
+        // таблицы заполнены в обход сервисов
+        context.getBean(BookingCountersService.class).rebuild();
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+        itemRequestService = context.getBean(ItemRequestService.class);
+        userRepository = context.getBean(UserRepository.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    protected DataSeeder createSeeder(JdbcTemplate jdbcTemplate) {
+        return new DataSeeder(jdbcTemplate, users);
+    }
+
+    public long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, users + 1);
+    }
+
+    public long randomItemId() {
+        return ThreadLocalRandom.current().nextLong(1, seeder.getItemCount() + 1);
+    }
+}
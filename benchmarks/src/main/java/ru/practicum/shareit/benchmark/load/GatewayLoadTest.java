@@ -0,0 +1,75 @@
+package ru.practicum.shareit.benchmark.load;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Нагрузочный тест gateway против заглушки сервера в режимах blocking, reactive и virtual
+ * (blocking на виртуальных потоках, нужен JDK 21: -Dload.java=/path/to/jdk21/bin/java).
+ * Gateway запускается отдельным процессом из собранного jar, так как классы gateway и сервера
+ * пересекаются по именам и не могут жить в одном classpath.
+ * Параметры задаются системными свойствами, значения по умолчанию указаны в коде.
+ */
+public class GatewayLoadTest {
+    private static final int GATEWAY_PORT = Integer.getInteger("load.gateway.port", 18080);
+    private static final int STUB_PORT = Integer.getInteger("load.stub.port", 19090);
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        String gatewayJar = System.getProperty("load.gateway.jar",
+                "gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar");
+        List<String> modes = LoadRunner.split(System.getProperty("load.modes", "blocking,reactive,virtual"));
+        int requestsPerConnection = Integer.getInteger("load.requests-per-connection", 5);
+        long latency = Long.getLong("load.stub.latency-ms", 50);
+        int serverPool = Integer.getInteger("load.server-pool", 2000);
+        File result = LoadRunner.resultFile("gateway-load.json");
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        try (StubServer stub = new StubServer(STUB_PORT, latency)) {
+            for (String mode : modes) {
+                List<String> arguments = new ArrayList<>(List.of(
+                        "-jar", gatewayJar,
+                        "--server.port=" + GATEWAY_PORT,
+                        "--shareit-server.url=" + stub.url(),
+                        "--shareit-server.http-client.max-total=" + serverPool,
+                        "--shareit-server.http-client.max-per-route=" + serverPool,
+                        "--shareit-server.http-client.read-timeout=60s",
+                        "--shareit-server.http-client.connection-request-timeout=60s",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web.client.RestTemplate=WARN"));
+                arguments.addAll(modeArguments(mode));
+                File log = new File(result.getParentFile(), "gateway-" + mode + ".log");
+                Process gateway = LoadRunner.start(arguments, log);
+                try {
+                    LoadRunner runner = new LoadRunner(GATEWAY_PORT);
+                    runner.awaitHealth();
+                    runner.run("/items/1", 200, 2000, gateway.pid());
+                    for (int level : LoadRunner.levels()) {
+                        Map<String, Object> row = runner.run("/items/1", level, level * requestsPerConnection,
+                                gateway.pid());
+                        row.put("mode", mode);
+                        row.put("stubLatencyMs", latency);
+                        System.out.println(row);
+                        results.add(row);
+                    }
+                } finally {
+                    LoadRunner.stop(gateway);
+                }
+            }
+        }
+        LoadRunner.write(result, results);
+    }
+
+    private static List<String> modeArguments(String mode) {
+        if ("virtual".equals(mode)) {
+            return List.of("--shareit-server.client=blocking", "--shareit.virtual-threads.enabled=true");
+        }
+        return List.of("--shareit-server.client=" + mode);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmark.load;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сравнение передачи ответа сервера байтами (pass-through) и разбора в Object с повторной сериализацией (object)
+ * на ответе GET /bookings из 1000 бронирований. Кроме задержки снимается объём памяти, выделенной gateway
+ * на один запрос, по метрике jvm.gc.memory.allocated (учитывается на сборках мусора, поэтому оценка приблизительная).
+ */
+public class GatewayPayloadTest {
+    private static final int GATEWAY_PORT = Integer.getInteger("load.gateway.port", 18080);
+    private static final int STUB_PORT = Integer.getInteger("load.stub.port", 19090);
+    private static final String ALLOCATED = "jvm.gc.memory.allocated";
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        String gatewayJar = System.getProperty("load.gateway.jar",
+                "gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar");
+        List<String> modes = LoadRunner.split(System.getProperty("load.modes", "pass-through,object"));
+        String client = System.getProperty("load.client", "blocking");
+        int bookings = Integer.getInteger("load.bookings", 1000);
+        int concurrency = Integer.getInteger("load.concurrency", 20);
+        int requests = Integer.getInteger("load.requests", 2000);
+        File result = LoadRunner.resultFile("gateway-payload.json");
+
+        byte[] body = bookingsJson(bookings);
+        List<Map<String, Object>> results = new ArrayList<>();
+        try (StubServer stub = new StubServer(STUB_PORT, 0, body)) {
+            for (String mode : modes) {
+                List<String> arguments = List.of(
+                        "-jar", gatewayJar,
+                        "--server.port=" + GATEWAY_PORT,
+                        "--shareit-server.url=" + stub.url(),
+                        "--shareit-server.client=" + client,
+                        "--shareit-server.pass-through=" + "pass-through".equals(mode),
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web.client.RestTemplate=WARN");
+                File log = new File(result.getParentFile(), "gateway-payload-" + mode + ".log");
+                Process gateway = LoadRunner.start(arguments, log);
+                try {
+                    LoadRunner runner = new LoadRunner(GATEWAY_PORT);
+                    runner.awaitHealth();
+                    runner.run("/bookings", concurrency, requests / 2, gateway.pid());
+                    double allocatedBefore = runner.metric(ALLOCATED);
+                    Map<String, Object> row = runner.run("/bookings", concurrency, requests, gateway.pid());
+                    double allocated = runner.metric(ALLOCATED) - allocatedBefore;
+                    row.put("mode", mode);
+                    row.put("client", client);
+                    row.put("responseKb", body.length / 1024);
+                    row.put("allocatedKbPerRequest", Math.round(allocated / requests / 1024));
+                    System.out.println(row);
+                    results.add(row);
+                } finally {
+                    LoadRunner.stop(gateway);
+                }
+            }
+        }
+        LoadRunner.write(result, results);
+    }
+
+    /**
+     * Ответ в формате BookingDto сервера: бронирование с вещью и автором.
+     */
+    private static byte[] bookingsJson(int count) {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"start\":\"").append(start.plusHours(i)).append(":00\"")
+                    .append(",\"end\":\"").append(start.plusHours(i + 1)).append(":00\"")
+                    .append(",\"status\":\"APPROVED\"")
+                    .append(",\"booker\":{\"id\":").append(i % 50 + 1).append('}')
+                    .append(",\"item\":{\"id\":").append(i % 200 + 1)
+                    .append(",\"name\":\"Дрель ").append(i).append("\"}}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,190 @@
+package ru.practicum.shareit.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Общая часть нагрузочных тестов: запуск приложения отдельным процессом, прогон запросов с заданным
+ * числом одновременных соединений и замер памяти и потоков процесса по /proc/&lt;pid&gt;/status (только Linux).
+ */
+public class LoadRunner {
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+    private final String baseUrl;
+
+    public LoadRunner(int port) {
+        this.baseUrl = "http://127.0.0.1:" + port;
+    }
+
+    public static Process start(List<String> arguments, File log) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("load.java",
+                Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        command.addAll(arguments);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+    }
+
+    public static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        process.waitFor();
+    }
+
+    public static List<String> split(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    public static List<Integer> levels() {
+        return split(System.getProperty("load.concurrency", "1000,5000,10000")).stream()
+                .map(Integer::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    public static File resultFile(String defaultName) {
+        File result = new File(System.getProperty("load.result", "benchmarks/target/" + defaultName));
+        result.getParentFile().mkdirs();
+        return result;
+    }
+
+    public static void write(File result, List<Map<String, Object>> rows) throws IOException {
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(result, rows);
+        System.out.println("Результаты сохранены в " + result);
+    }
+
+    public void awaitHealth() throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build();
+        for (int i = 0; i < 120; i++) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ignored) {
+                // приложение ещё стартует
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Приложение не запустилось за 60 секунд.");
+    }
+
+    /**
+     * Значение метрики из /actuator/metrics/&lt;name&gt;.
+     */
+    public double metric(String name) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name)).build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        return new ObjectMapper().readTree(body).path("measurements").path(0).path("value").asDouble();
+    }
+
+    public int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    public HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("X-Sharer-User-Id", "1")
+                .timeout(Duration.ofSeconds(120));
+    }
+
+    /**
+     * Отправляет total запросов GET path, удерживая не более concurrency запросов одновременно.
+     * Пока идёт прогон, раз в 100 мс снимает RSS и число потоков процесса pid.
+     */
+    public Map<String, Object> run(String path, int concurrency, int total, long pid) throws InterruptedException {
+        HttpRequest request = request(path).build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicLong errors = new AtomicLong();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        long idleRss = status(pid, "VmRSS");
+        AtomicLong peakRss = new AtomicLong(idleRss);
+        AtomicLong peakThreads = new AtomicLong(status(pid, "Threads"));
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            peakRss.accumulateAndGet(status(pid, "VmRSS"), Math::max);
+            peakThreads.accumulateAndGet(status(pid, "Threads"), Math::max);
+        }, 0, 100, TimeUnit.MILLISECONDS);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((r, e) -> {
+                if (e != null || r.statusCode() != 200) {
+                    errors.incrementAndGet();
+                } else {
+                    latencies.add(System.nanoTime() - sent);
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(concurrency);
+        long elapsed = System.nanoTime() - started;
+        sampler.shutdownNow();
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("concurrency", concurrency);
+        row.put("requests", total);
+        row.put("errors", errors.get());
+        row.put("throughputRps", Math.round(total / (elapsed / 1e9)));
+        row.put("p50Ms", percentile(sorted, 0.50));
+        row.put("p99Ms", percentile(sorted, 0.99));
+        row.put("peakThreads", peakThreads.get());
+        row.put("peakRssMb", peakRss.get() / 1024);
+        row.put("rssPerConnectionKb", Math.round((peakRss.get() - idleRss) / (double) concurrency * 10) / 10.0);
+        return row;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return Math.round(sorted[Math.max(index, 0)] / 1e4) / 100.0;
+    }
+
+    /**
+     * Значение поля из /proc/&lt;pid&gt;/status: VmRSS в килобайтах, Threads - число потоков. 0, если недоступно.
+     */
+    private static long status(long pid, String field) {
+        try {
+            return Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status")).stream()
+                    .filter(line -> line.startsWith(field + ":"))
+                    .map(line -> line.replaceAll("\\D", ""))
+                    .mapToLong(Long::parseLong)
+                    .findFirst()
+                    .orElse(0);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
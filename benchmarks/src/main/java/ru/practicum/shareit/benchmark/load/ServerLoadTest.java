@@ -0,0 +1,59 @@
+package ru.practicum.shareit.benchmark.load;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Нагрузочный тест сервера на H2 (профиль benchmark) в режимах platform (пул потоков Tomcat)
+ * и virtual (виртуальные потоки, нужен JDK 21: -Dload.java=/path/to/jdk21/bin/java).
+ * Сервер запускается отдельным процессом с classpath модуля benchmarks.
+ */
+public class ServerLoadTest {
+    private static final int SERVER_PORT = Integer.getInteger("load.server.port", 19191);
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        List<String> modes = LoadRunner.split(System.getProperty("load.modes", "platform,virtual"));
+        int requestsPerConnection = Integer.getInteger("load.requests-per-connection", 5);
+        File result = LoadRunner.resultFile("server-load.json");
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String mode : modes) {
+            List<String> arguments = List.of(
+                    "-cp", System.getProperty("java.class.path"),
+                    "ru.practicum.shareit.ShareItServer",
+                    "--spring.profiles.active=benchmark",
+                    "--server.port=" + SERVER_PORT,
+                    "--server.tomcat.max-connections=20000",
+                    "--shareit.virtual-threads.enabled=" + "virtual".equals(mode));
+            File log = new File(result.getParentFile(), "server-" + mode + ".log");
+            Process server = LoadRunner.start(arguments, log);
+            try {
+                LoadRunner runner = new LoadRunner(SERVER_PORT);
+                runner.awaitHealth();
+                runner.send(runner.request("/users")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"name\":\"Нагрузка\",\"email\":\"load@mail.ru\"}")));
+                runner.run("/users/1", 200, 2000, server.pid());
+                for (int level : LoadRunner.levels()) {
+                    Map<String, Object> row = runner.run("/users/1", level, level * requestsPerConnection,
+                            server.pid());
+                    row.put("mode", mode);
+                    System.out.println(row);
+                    results.add(row);
+                }
+            } finally {
+                LoadRunner.stop(server);
+            }
+        }
+        LoadRunner.write(result, results);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.benchmark.load;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Заглушка сервера ShareIt: на любой запрос отвечает одним и тем же JSON через заданную задержку.
+ * Построена на Reactor Netty, поэтому задержка не занимает потоки и заглушка не становится узким местом.
+ */
+public class StubServer implements AutoCloseable {
+    private static final byte[] BODY = "{\"id\":1,\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final DisposableServer server;
+
+    public StubServer(int port, long latencyMillis) {
+        this(port, latencyMillis, BODY);
+    }
+
+    public StubServer(int port, long latencyMillis, byte[] body) {
+        Duration latency = Duration.ofMillis(latencyMillis);
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(port)
+                .handle((request, response) -> request.receive()
+                        .then(Mono.delay(latency))
+                        .then(response.header("Content-Type", "application/json")
+                                .sendByteArray(Mono.just(body))
+                                .then()))
+                .bindNow();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
@@ -1,15 +1,13 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponse;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
 import java.util.Map;
 
@@ -18,16 +16,20 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerTransportFactory transportFactory) {
+        super(transportFactory.create(API_PREFIX));
     }
 
-    public ResponseEntity getBookings(String path, long userId, BookingState state, Integer from, Integer size) {
+    public GatewayResponse<Object> getBookings(String path, long userId, BookingState state, Integer from,
+                                               Integer size, String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "size", size,
+                    "after", after
+            );
+            return get(path + "?state={state}&size={size}&after={after}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -36,18 +38,26 @@ public class BookingClient extends BaseClient {
         return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity bookItem(long userId, BookingRequestDto requestDto) {
+    public GatewayResponse<Object> bookItem(long userId, BookingRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity getBooking(long userId, Long bookingId) {
+    public GatewayResponse<Object> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity approveOrReject(long userId, Long bookingId, Boolean approved) {
+    public GatewayResponse<Object> approveOrReject(long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
-}
\ No newline at end of file
+
+    public GatewayResponse<Object> getSummaryForAllUserItems(long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    public GatewayResponse<StreamingResponseBody> exportBookingsForAllUserItems(long userId, String format) {
+        return stream("/owner/export?format={format}", userId, Map.of("format", format));
+    }
+}
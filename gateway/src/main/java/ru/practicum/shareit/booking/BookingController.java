@@ -2,15 +2,18 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponse;
 import ru.practicum.shareit.exception.ValidationException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.util.Set;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -18,64 +21,82 @@ import javax.validation.constraints.Min;
 @Validated
 @Slf4j
 public class BookingController {
+    private static final Set<String> EXPORT_FORMATS = Set.of("ndjson", "csv");
+
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity addBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                     @RequestBody @Valid BookingRequestDto bookingDto) {
+    public GatewayResponse<Object> addBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @RequestBody @Valid BookingRequestDto bookingDto) {
         log.debug("Пришел новый запрос на бронирование вещи с id = {} от пользователя {}.",
                 bookingDto.getItemId(), userId);
         if (bookingDto.getEnd().isBefore(bookingDto.getStart()) || bookingDto.getEnd().isEqual(bookingDto.getStart())) {
             throw new ValidationException("Неправильные даты бронирования.");
         }
-        ResponseEntity savedBooking = bookingClient.bookItem(userId, bookingDto);
-        log.debug("Бронирование добавлено.");
-        return savedBooking;
+        return bookingClient.bookItem(userId, bookingDto)
+                .peek(savedBooking -> log.debug("Бронирование добавлено."));
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity approveOrRejectBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                 @PathVariable("bookingId") long bookingId, @RequestParam boolean approved) {
+    public GatewayResponse<Object> approveOrRejectBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                          @PathVariable("bookingId") long bookingId,
+                                                          @RequestParam boolean approved) {
         log.debug("Запрос на подтверждение или отклонение бронирования (id = {}), " +
                 "(approve = {}), от пользователя id = {}.", bookingId, approved, userId);
-        ResponseEntity bookingDto = bookingClient.approveOrReject(userId, bookingId, approved);
-        log.debug("Статус бронирования изменен.");
-        return bookingDto;
+        return bookingClient.approveOrReject(userId, bookingId, approved)
+                .peek(bookingDto -> log.debug("Статус бронирования изменен."));
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                     @PathVariable("bookingId") long bookingId) {
+    public GatewayResponse<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @PathVariable("bookingId") long bookingId) {
         log.debug("Запрос на получение данных о бронировании (id = {}) " +
                 "от пользователя (id = {}).", bookingId, userId);
-        ResponseEntity bookingDto = bookingClient.getBooking(userId, bookingId);
-        log.debug("Найдено бронирование: {}", bookingDto.getBody());
-        return bookingDto;
+        return bookingClient.getBooking(userId, bookingId)
+                .peek(bookingDto -> log.debug("Найдено бронирование: {}", BaseClient.bodyForLog(bookingDto)));
     }
 
     @GetMapping
-    public ResponseEntity getUserBookings(@RequestHeader("X-Sharer-User-Id") int userId,
-                                          @RequestParam(defaultValue = "ALL") String state,
-                                          @RequestParam(defaultValue = "0") @Min(0) int from,
-                                          @RequestParam(defaultValue = "10") @Min(1) int size) {
+    public GatewayResponse<Object> getUserBookings(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                   @RequestParam(defaultValue = "ALL") String state,
+                                                   @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                   @RequestParam(defaultValue = "10") @Min(1) int size,
+                                                   @RequestParam(required = false) String after) {
         log.debug("Получение списка всех бронирований пользователя (id = {}).", userId);
         BookingState bookingState = BookingState.from(state)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + state));
-        ResponseEntity foundBookings = bookingClient.getBookings("", userId, bookingState, from, size);
-        log.debug("Найдены бронирования: {}.", foundBookings.getBody());
-        return foundBookings;
+        return bookingClient.getBookings("", userId, bookingState, from, size, after)
+                .peek(foundBookings -> log.debug("Найдены бронирования: {}.",
+                        BaseClient.bodyForLog(foundBookings)));
     }
 
     @GetMapping("/owner")
-    public ResponseEntity getBookingsForAllUserItems(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                     @RequestParam(defaultValue = "ALL") String state,
-                                                     @RequestParam(defaultValue = "0") @Min(0) int from,
-                                                     @RequestParam(defaultValue = "10") @Min(1) int size) {
+    public GatewayResponse<Object> getBookingsForAllUserItems(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                              @RequestParam(defaultValue = "ALL") String state,
+                                                              @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                              @RequestParam(defaultValue = "10") @Min(1) int size,
+                                                              @RequestParam(required = false) String after) {
         log.debug("Получение списка бронирований для всех вещей пользователя (id = {}).", userId);
         BookingState bookingState = BookingState.from(state)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + state));
-        ResponseEntity foundBookings = bookingClient.getBookings("/owner", userId, bookingState, from, size);
-        log.debug("Найдены бронирования: {}.", foundBookings.getBody());
-        return foundBookings;
+        return bookingClient.getBookings("/owner", userId, bookingState, from, size, after)
+                .peek(foundBookings -> log.debug("Найдены бронирования: {}.",
+                        BaseClient.bodyForLog(foundBookings)));
+    }
+
+    @GetMapping("/owner/summary")
+    public GatewayResponse<Object> getSummaryForAllUserItems(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Получение числа бронирований по состояниям для всех вещей пользователя (id = {}).", userId);
+        return bookingClient.getSummaryForAllUserItems(userId);
+    }
+
+    @GetMapping("/owner/export")
+    public GatewayResponse<StreamingResponseBody> exportBookingsForAllUserItems(
+            @RequestHeader("X-Sharer-User-Id") long userId, @RequestParam(defaultValue = "ndjson") String format) {
+        log.debug("Выгрузка всех бронирований вещей пользователя (id = {}) в формате {}.", userId, format);
+        if (!EXPORT_FORMATS.contains(format.toLowerCase())) {
+            throw new ValidationException("Неизвестный формат выгрузки: " + format + ".");
+        }
+        return bookingClient.exportBookingsForAllUserItems(userId, format);
     }
 }
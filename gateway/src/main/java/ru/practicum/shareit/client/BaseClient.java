@@ -1,101 +1,110 @@
 package ru.practicum.shareit.client;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    /**
+     * Заголовки соединения и длина тела ответа сервера не передаются клиенту: их выставляет Tomcat gateway.
+     */
+    private static final Set<String> SERVER_ONLY_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    static {
+        SERVER_ONLY_HEADERS.addAll(List.of(HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.TRANSFER_ENCODING,
+                HttpHeaders.TE, HttpHeaders.TRAILER, HttpHeaders.UPGRADE, HttpHeaders.CONTENT_LENGTH));
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected final ServerTransport transport;
+
+    public BaseClient(ServerTransport transport) {
+        this.transport = transport;
+    }
+
+    protected GatewayResponse<Object> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected GatewayResponse<Object> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected GatewayResponse<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> GatewayResponse<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> GatewayResponse<Object> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> GatewayResponse<Object> post(String path, Long userId,
+                                               @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> GatewayResponse<Object> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> GatewayResponse<Object> put(String path, long userId,
+                                              @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> GatewayResponse<Object> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> GatewayResponse<Object> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> GatewayResponse<Object> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> GatewayResponse<Object> patch(String path, Long userId,
+                                                @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected GatewayResponse<Object> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected GatewayResponse<Object> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected GatewayResponse<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    protected GatewayResponse<StreamingResponseBody> stream(String path, long userId,
+                                                            @Nullable Map<String, Object> parameters) {
+        return transport.stream(path, userId, parameters);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+    private <T> GatewayResponse<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                           @Nullable Map<String, Object> parameters,
+                                                           @Nullable T body) {
+        return transport.exchange(method, path, userId, parameters, body);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    static HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
@@ -105,17 +114,37 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    static HttpHeaders streamHeaders(Long userId) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(MediaType.ALL));
+        return headers;
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    static HttpHeaders gatewayHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!SERVER_ONLY_HEADERS.contains(name)) {
+                    headers.addAll(name, values);
+                }
+            });
         }
+        return headers;
+    }
 
-        return responseBuilder.build();
+    /**
+     * Тело ответа для отладочного лога: в режиме pass-through это байты JSON, они декодируются только при выводе.
+     */
+    public static Object bodyForLog(ResponseEntity<Object> response) {
+        Object body = response.getBody();
+        if (body instanceof byte[]) {
+            return new Object() {
+                @Override
+                public String toString() {
+                    return new String((byte[]) body, StandardCharsets.UTF_8);
+                }
+            };
+        }
+        return body;
     }
-}
\ No newline at end of file
+}
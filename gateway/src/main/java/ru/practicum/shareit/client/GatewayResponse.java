@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Consumer;
+
+/**
+ * Ответ shareit-server, который контроллер gateway возвращает клиенту: готовый ResponseEntity в режиме blocking
+ * или Mono в режиме reactive. Готовый ответ записывается синхронно, без асинхронной обработки запроса
+ * (см. GatewayResponseReturnValueHandler).
+ */
+public final class GatewayResponse<T> {
+    @Nullable
+    private final ResponseEntity<T> entity;
+    @Nullable
+    private final Mono<ResponseEntity<T>> mono;
+
+    private GatewayResponse(@Nullable ResponseEntity<T> entity, @Nullable Mono<ResponseEntity<T>> mono) {
+        this.entity = entity;
+        this.mono = mono;
+    }
+
+    public static <T> GatewayResponse<T> of(ResponseEntity<T> entity) {
+        return new GatewayResponse<>(entity, null);
+    }
+
+    public static <T> GatewayResponse<T> of(Mono<ResponseEntity<T>> mono) {
+        return new GatewayResponse<>(null, mono);
+    }
+
+    /**
+     * Выполняет action, когда ответ сервера получен.
+     */
+    public GatewayResponse<T> peek(Consumer<ResponseEntity<T>> action) {
+        if (mono != null) {
+            return of(mono.doOnNext(action));
+        }
+        action.accept(entity);
+        return this;
+    }
+
+    @Nullable
+    ResponseEntity<T> getEntity() {
+        return entity;
+    }
+
+    @Nullable
+    Mono<ResponseEntity<T>> getMono() {
+        return mono;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.List;
+
+@Configuration
+public class GatewayResponseConfig implements WebMvcConfigurer {
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+
+    public GatewayResponseConfig(ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter) {
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    @Override
+    public void addReturnValueHandlers(List<HandlerMethodReturnValueHandler> handlers) {
+        handlers.add(new GatewayResponseReturnValueHandler(handlerAdapter));
+    }
+}
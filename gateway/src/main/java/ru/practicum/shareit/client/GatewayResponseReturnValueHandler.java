@@ -0,0 +1,101 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+/**
+ * Разворачивает GatewayResponse, который вернул контроллер: ResponseEntity&lt;T&gt; передаётся стандартным
+ * обработчикам Spring MVC (HttpEntityMethodProcessor, StreamingResponseBodyReturnValueHandler) так, будто метод
+ * объявлен с этим типом, Mono - обработчику реактивных типов, который запускает асинхронную обработку запроса.
+ * Результат Mono после асинхронной диспетчеризации тоже приходит сюда, потому что обработчик выбирается
+ * по объявленному типу метода.
+ */
+public class GatewayResponseReturnValueHandler implements AsyncHandlerMethodReturnValueHandler {
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+
+    public GatewayResponseReturnValueHandler(ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter) {
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        Method method = returnType.getMethod();
+        return method != null && method.getReturnType() == GatewayResponse.class;
+    }
+
+    /**
+     * Обработчики асинхронных значений выбираются раньше остальных, иначе GatewayResponse из @RestController
+     * забрал бы RequestResponseBodyMethodProcessor и записал бы его как JSON.
+     */
+    @Override
+    public boolean isAsyncReturnValue(Object returnValue, MethodParameter returnType) {
+        return supportsReturnType(returnType);
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+        ResolvableType entityType = ResolvableType.forClassWithGenerics(ResponseEntity.class,
+                ResolvableType.forMethodReturnType(returnType.getMethod()).getGeneric());
+        Object value = returnValue;
+        if (returnValue instanceof GatewayResponse) {
+            GatewayResponse<?> response = (GatewayResponse<?>) returnValue;
+            if (response.getMono() != null) {
+                delegate(response.getMono(), new TypedMethodParameter(returnType,
+                        ResolvableType.forClassWithGenerics(Mono.class, entityType)), mavContainer, webRequest);
+                return;
+            }
+            value = response.getEntity();
+        }
+        delegate(value, new TypedMethodParameter(returnType, entityType), mavContainer, webRequest);
+    }
+
+    private void delegate(Object value, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                          NativeWebRequest webRequest) throws Exception {
+        for (HandlerMethodReturnValueHandler handler : handlerAdapter.getObject().getReturnValueHandlers()) {
+            if (handler != this && handler.supportsReturnType(returnType)) {
+                handler.handleReturnValue(value, returnType, mavContainer, webRequest);
+                return;
+            }
+        }
+        throw new IllegalStateException("Нет обработчика для " + returnType.getGenericParameterType() + ".");
+    }
+
+    /**
+     * Возвращаемое значение того же метода с другим объявленным типом.
+     */
+    private static class TypedMethodParameter extends MethodParameter {
+        private final ResolvableType type;
+
+        TypedMethodParameter(MethodParameter original, ResolvableType type) {
+            super(original);
+            this.type = type;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return type.toClass();
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return type.getType();
+        }
+
+        @Override
+        public TypedMethodParameter clone() {
+            return new TypedMethodParameter(this, type);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Блокирующий режим: запрос выполняется в потоке сервлета, ответ возвращается контроллеру готовым.
+ * Свободное соединение ожидается на семафоре размером с пул, а не внутри synchronized в Apache HttpClient,
+ * чтобы виртуальный поток не закреплялся за несущим, пока пул занят.
+ */
+public class RestTemplateTransport implements ServerTransport {
+    private final RestTemplate rest;
+    private final Semaphore connectionPermits;
+    private final Duration connectionRequestTimeout;
+    private final Class<?> responseType;
+
+    public RestTemplateTransport(RestTemplate rest, Semaphore connectionPermits, Duration connectionRequestTimeout,
+                                 boolean passThrough) {
+        this.rest = rest;
+        this.connectionPermits = connectionPermits;
+        this.connectionRequestTimeout = connectionRequestTimeout;
+        this.responseType = passThrough ? byte[].class : Object.class;
+    }
+
+    @Override
+    public GatewayResponse<Object> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                            @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        acquireConnection();
+        try {
+            return GatewayResponse.of(doExchange(method, path, userId, parameters, body));
+        } finally {
+            connectionPermits.release();
+        }
+    }
+
+    @Override
+    public GatewayResponse<StreamingResponseBody> stream(String path, @Nullable Long userId,
+                                                         @Nullable Map<String, Object> parameters) {
+        acquireConnection();
+        return GatewayResponse.of(openStream(path, userId, parameters));
+    }
+
+    private void acquireConnection() {
+        try {
+            if (connectionPermits.tryAcquire(connectionRequestTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new ResourceAccessException("Нет свободного соединения с shareit-server.");
+    }
+
+    /**
+     * Разрешение семафора и ответ сервера освобождаются после копирования тела клиенту.
+     */
+    private ResponseEntity<StreamingResponseBody> openStream(String path, Long userId,
+                                                             Map<String, Object> parameters) {
+        ClientHttpResponse response;
+        ResponseEntity.BodyBuilder responseBuilder;
+        try {
+            URI uri = rest.getUriTemplateHandler()
+                    .expand(path, parameters != null ? parameters : Collections.emptyMap());
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().addAll(BaseClient.streamHeaders(userId));
+            response = request.execute();
+            responseBuilder = ResponseEntity.status(response.getRawStatusCode())
+                    .headers(BaseClient.gatewayHeaders(response.getHeaders()));
+        } catch (IOException e) {
+            connectionPermits.release();
+            throw new ResourceAccessException("Ошибка запроса к shareit-server: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            connectionPermits.release();
+            throw e;
+        }
+        return responseBuilder.body(out -> {
+            try (response) {
+                StreamUtils.copy(response.getBody(), out);
+            } finally {
+                connectionPermits.release();
+            }
+        });
+    }
+
+    private ResponseEntity<Object> doExchange(HttpMethod method, String path, Long userId,
+                                              Map<String, Object> parameters, Object body) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, BaseClient.defaultHeaders(userId));
+
+        ResponseEntity<?> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(BaseClient.gatewayHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
+        }
+        return ResponseEntity.status(shareitServerResponse.getStatusCode())
+                .headers(BaseClient.gatewayHeaders(shareitServerResponse.getHeaders()))
+                .body(shareitServerResponse.getBody());
+    }
+}
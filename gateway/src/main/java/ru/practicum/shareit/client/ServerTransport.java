@@ -0,0 +1,24 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+
+/**
+ * Способ отправки запроса на shareit-server. Статус и заголовки ответа (кроме заголовков соединения) передаются
+ * клиенту как есть. Тело ответа 2xx - байты в режиме pass-through или разобранный Object, тело остальных
+ * ответов всегда передаётся байтами.
+ */
+public interface ServerTransport {
+    GatewayResponse<Object> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                     @Nullable Map<String, Object> parameters, @Nullable Object body);
+
+    /**
+     * GET-запрос, тело ответа которого не читается в память: оно копируется клиенту по мере получения
+     * при записи StreamingResponseBody, соединение с сервером занято до конца копирования.
+     */
+    GatewayResponse<StreamingResponseBody> stream(String path, @Nullable Long userId,
+                                                  @Nullable Map<String, Object> parameters);
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Создаёт транспорт для клиентов gateway. Режим задаётся свойством shareit-server.client:
+ * blocking (RestTemplate, по умолчанию) или reactive (WebClient). При shareit-server.pass-through=true (по умолчанию)
+ * тело ответа сервера передаётся клиенту байтами, без разбора в Object и повторной сериализации.
+ */
+@Component
+public class ServerTransportFactory {
+    private final String serverUrl;
+    private final String mode;
+    private final boolean passThrough;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final ClientHttpRequestFactory requestFactory;
+    private final ObjectProvider<WebClient.Builder> webClientBuilder;
+    private final Semaphore connectionPermits;
+    private final Duration connectionRequestTimeout;
+    private final int maxInMemorySize;
+
+    public ServerTransportFactory(@Value("${shareit-server.url}") String serverUrl,
+                                  @Value("${shareit-server.client:blocking}") String mode,
+                                  @Value("${shareit-server.pass-through:true}") boolean passThrough,
+                                  RestTemplateBuilder restTemplateBuilder,
+                                  ClientHttpRequestFactory requestFactory,
+                                  ObjectProvider<WebClient.Builder> webClientBuilder,
+                                  HttpClientProperties properties) {
+        this.serverUrl = serverUrl;
+        this.mode = mode;
+        this.passThrough = passThrough;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.requestFactory = requestFactory;
+        this.webClientBuilder = webClientBuilder;
+        this.connectionPermits = new Semaphore(properties.getMaxTotal(), true);
+        this.connectionRequestTimeout = properties.getConnectionRequestTimeout();
+        this.maxInMemorySize = Math.toIntExact(properties.getMaxInMemorySize().toBytes());
+    }
+
+    public ServerTransport create(String apiPrefix) {
+        if ("reactive".equalsIgnoreCase(mode)) {
+            return new WebClientTransport(webClientBuilder.getObject()
+                    .baseUrl(serverUrl + apiPrefix)
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                    .build(), passThrough);
+        }
+        return new RestTemplateTransport(restTemplateBuilder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                .requestFactory(() -> requestFactory)
+                .build(), connectionPermits, connectionRequestTimeout, passThrough);
+    }
+}
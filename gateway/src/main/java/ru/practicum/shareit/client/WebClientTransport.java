@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Неблокирующий режим: запрос уходит через Reactor Netty, поток сервлета освобождается
+ * до получения ответа (async servlet). Тело ответа, которое читается целиком, ограничено
+ * shareit-server.http-client.max-in-memory-size.
+ */
+public class WebClientTransport implements ServerTransport {
+    private final WebClient webClient;
+    private final Class<?> responseType;
+
+    public WebClientTransport(WebClient webClient, boolean passThrough) {
+        this.webClient = webClient;
+        this.responseType = passThrough ? byte[].class : Object.class;
+    }
+
+    @Override
+    public GatewayResponse<Object> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                            @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Collections.emptyMap())
+                .headers(headers -> headers.addAll(BaseClient.defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return GatewayResponse.of(spec.exchangeToMono(response -> {
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.rawStatusCode())
+                    .headers(BaseClient.gatewayHeaders(response.headers().asHttpHeaders()));
+            Class<?> bodyType = response.statusCode().is2xxSuccessful() ? responseType : byte[].class;
+            return response.bodyToMono(bodyType)
+                    .<ResponseEntity<Object>>map(responseBuilder::body)
+                    .defaultIfEmpty(responseBuilder.build());
+        }));
+    }
+
+    /**
+     * Ответ любого статуса передаётся как есть. Тело копируется в поток записи ответа gateway по одному буферу,
+     * следующий буфер запрашивается у Netty только после записи предыдущего.
+     */
+    @Override
+    public GatewayResponse<StreamingResponseBody> stream(String path, @Nullable Long userId,
+                                                         @Nullable Map<String, Object> parameters) {
+        return GatewayResponse.of(webClient.get()
+                .uri(path, parameters != null ? parameters : Collections.emptyMap())
+                .headers(headers -> headers.addAll(BaseClient.streamHeaders(userId)))
+                .retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> ResponseEntity.status(response.getStatusCodeValue())
+                        .headers(BaseClient.gatewayHeaders(response.getHeaders()))
+                        .body(out -> DataBufferUtils.write(response.getBody(), out)
+                                .map(DataBufferUtils::release)
+                                .then()
+                                .block())));
+    }
+}
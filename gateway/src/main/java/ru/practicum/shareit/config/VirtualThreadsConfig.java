@@ -0,0 +1,33 @@
+package ru.practicum.shareit.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Виртуальный поток на каждый запрос к шлюзу, включается свойством shareit.virtual-threads.enabled=true.
+ * Имеет смысл с блокирующим клиентом: поток запроса почти всё время ждёт ответа сервера
+ * (см. RestTemplateTransport). Executors.newVirtualThreadPerTaskExecutor есть только в JDK 21,
+ * а шлюз собирается под 17, поэтому метод вызывается через reflection.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsCustomizer() {
+        ExecutorService executor;
+        try {
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Виртуальные потоки требуют JDK 21, текущая версия: "
+                    + Runtime.version() + ".", e);
+        }
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+}
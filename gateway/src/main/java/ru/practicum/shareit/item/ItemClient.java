@@ -1,16 +1,14 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponse;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,26 +16,27 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public ItemClient(ServerTransportFactory transportFactory) {
+        super(transportFactory.create(API_PREFIX));
     }
 
-    public ResponseEntity saveItem(long userId, ItemShortDto itemDto) {
+    public GatewayResponse<Object> saveItem(long userId, ItemShortDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity getItem(long userId, long itemId) {
+    public GatewayResponse<Object> saveItems(long userId, List<ItemShortDto> itemDtos) {
+        return post("/batch", userId, itemDtos);
+    }
+
+    public GatewayResponse<Object> getItem(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity updateItem(long userId, long itemId, ItemShortDto itemDto) {
+    public GatewayResponse<Object> updateItem(long userId, long itemId, ItemShortDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity getUserItems(long userId, Integer from, Integer size) {
+    public GatewayResponse<Object> getUserItems(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -45,7 +44,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity searchItems(long userId, String text, Integer from, Integer size) {
+    public GatewayResponse<Object> searchItems(long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -54,7 +53,7 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity addComment(long userId, long itemId, CommentDto commentDto) {
+    public GatewayResponse<Object> addComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
@@ -2,9 +2,11 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponse;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.validator.OnCreate;
@@ -12,6 +14,7 @@ import ru.practicum.shareit.validator.OnUpdate;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.util.List;
 
 @RestController
 @RequestMapping("/items")
@@ -19,60 +22,73 @@ import javax.validation.constraints.Min;
 @Validated
 @Slf4j
 public class ItemController {
+    private static final int MAX_BATCH_SIZE = 1000;
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity addItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                                  @RequestBody @Validated({OnCreate.class}) ItemShortDto item) {
+    public GatewayResponse<Object> addItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                           @RequestBody @Validated({OnCreate.class}) ItemShortDto item) {
         log.debug("Добавление вещи {} пользователя с id = {}.", item.getName(), userId);
-        ResponseEntity savedItem = itemClient.saveItem(userId, item);
-        log.debug("Вещь добавлена.");
-        return savedItem;
+        return itemClient.saveItem(userId, item)
+                .peek(savedItem -> log.debug("Вещь добавлена."));
+    }
+
+    /**
+     * Поля вещей проверяет сервер, чтобы ошибка в одной вещи не отклоняла весь пакет.
+     */
+    @PostMapping("/batch")
+    public GatewayResponse<Object> addItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                            @RequestBody List<ItemShortDto> items) {
+        if (items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("В пакете должно быть от 1 до " + MAX_BATCH_SIZE + " вещей.");
+        }
+        log.debug("Добавление {} вещей пользователя с id = {}.", items.size(), userId);
+        return itemClient.saveItems(userId, items)
+                .peek(results -> log.debug("Пакет вещей обработан."));
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity updateItem(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable("itemId") long itemId,
-                                     @RequestBody @Validated({OnUpdate.class}) ItemShortDto item) {
+    public GatewayResponse<Object> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @PathVariable("itemId") long itemId,
+                                              @RequestBody @Validated({OnUpdate.class}) ItemShortDto item) {
         log.debug("Обновление вещи id = {} пользователя c id = {}.", itemId, userId);
-        ResponseEntity updatedItem = itemClient.updateItem(userId, itemId, item);
-        log.debug("Данные обновлены.");
-        return updatedItem;
+        return itemClient.updateItem(userId, itemId, item)
+                .peek(updatedItem -> log.debug("Данные обновлены."));
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity getItem(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable("itemId") long itemId) {
+    public GatewayResponse<Object> getItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                           @PathVariable("itemId") long itemId) {
         log.debug("Поиск вещи id = {} пользователя c id = {}.", itemId, userId);
-        ResponseEntity foundItem = itemClient.getItem(userId, itemId);
-        log.debug("Найдена вещь: {}.", foundItem.getBody());
-        return foundItem;
+        return itemClient.getItem(userId, itemId)
+                .peek(foundItem -> log.debug("Найдена вещь: {}.", BaseClient.bodyForLog(foundItem)));
     }
 
     @GetMapping
-    public ResponseEntity getUserItems(@RequestHeader("X-Sharer-User-Id") long userId,
-                                       @RequestParam(defaultValue = "0") @Min(0) int from,
-                                       @RequestParam(defaultValue = "10") @Min(1) int size) {
+    public GatewayResponse<Object> getUserItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                @RequestParam(defaultValue = "10") @Min(1) int size) {
         log.debug("Поиск всех вещей пользователя id = {}.", userId);
-        ResponseEntity foundItems = itemClient.getUserItems(userId, from, size);
-        log.debug("Найдены вещи: {}.", foundItems.getBody());
-        return foundItems;
+        return itemClient.getUserItems(userId, from, size)
+                .peek(foundItems -> log.debug("Найдены вещи: {}.", BaseClient.bodyForLog(foundItems)));
     }
 
     @GetMapping("/search")
-    public ResponseEntity searchItems(@RequestHeader("X-Sharer-User-Id") long userId, @RequestParam String text,
-                                      @RequestParam(defaultValue = "0") @Min(0) int from,
-                                      @RequestParam(defaultValue = "10") @Min(1) int size) {
+    public GatewayResponse<Object> searchItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @RequestParam String text,
+                                               @RequestParam(defaultValue = "0") @Min(0) int from,
+                                               @RequestParam(defaultValue = "10") @Min(1) int size) {
         log.debug("Поиск вещей по запросу {}.", text);
-        ResponseEntity foundItems = itemClient.searchItems(userId, text, from, size);
-        log.debug("Найдены вещи: {}.", foundItems.getBody());
-        return foundItems;
+        return itemClient.searchItems(userId, text, from, size)
+                .peek(foundItems -> log.debug("Найдены вещи: {}.", BaseClient.bodyForLog(foundItems)));
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity addComment(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable("itemId") long itemId,
-                                     @RequestBody @Valid CommentDto commentDto) {
+    public GatewayResponse<Object> addComment(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @PathVariable("itemId") long itemId,
+                                              @RequestBody @Valid CommentDto commentDto) {
         log.debug("Запрос на добавление комментария от пользователя id = {}, к вещи id = {}.", userId, itemId);
-        ResponseEntity comment = itemClient.addComment(userId, itemId, commentDto);
-        log.debug("Комментарий добавлен.");
-        return comment;
+        return itemClient.addComment(userId, itemId, commentDto)
+                .peek(comment -> log.debug("Комментарий добавлен."));
     }
 }
@@ -1,13 +1,10 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponse;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 
 import java.util.Map;
@@ -18,26 +15,23 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public ItemRequestClient(ServerTransportFactory transportFactory) {
+        super(transportFactory.create(API_PREFIX));
     }
 
-    public ResponseEntity addItemRequest(long userId, ItemRequestShortDto itemRequestDto) {
+    public GatewayResponse<Object> addItemRequest(long userId, ItemRequestShortDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity getItemRequest(long userId, long itemRequestId) {
+    public GatewayResponse<Object> getItemRequest(long userId, long itemRequestId) {
         return get("/" + itemRequestId, userId);
     }
 
-    public ResponseEntity getUserItemRequests(long userId) {
+    public GatewayResponse<Object> getUserItemRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity getOtherItemRequests(long userId, Integer from, Integer size) {
+    public GatewayResponse<Object> getOtherItemRequests(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -2,9 +2,10 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponse;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 
 import javax.validation.Valid;
@@ -19,38 +20,34 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity addRequest(@RequestHeader("X-Sharer-User-Id") long userId,
-                                     @RequestBody @Valid ItemRequestShortDto requestDto) {
+    public GatewayResponse<Object> addRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @RequestBody @Valid ItemRequestShortDto requestDto) {
         log.debug("Создание запроса от пользователя с id = {}.", userId);
-        ResponseEntity savedRequest = itemRequestClient.addItemRequest(userId, requestDto);
-        log.debug("Запрос создан.");
-        return savedRequest;
+        return itemRequestClient.addItemRequest(userId, requestDto)
+                .peek(savedRequest -> log.debug("Запрос создан."));
     }
 
     @GetMapping
-    public ResponseEntity getUserItemRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
+    public GatewayResponse<Object> getUserItemRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
         log.debug("Поиск всех запросов пользователя id = {}.", userId);
-        ResponseEntity foundRequests = itemRequestClient.getUserItemRequests(userId);
-        log.debug("Найдены запросы: {}.", foundRequests);
-        return foundRequests;
+        return itemRequestClient.getUserItemRequests(userId)
+                .peek(foundRequests -> log.debug("Найдены запросы: {}.", foundRequests));
     }
 
     @GetMapping("/all")
-    public ResponseEntity getOtherItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestParam(defaultValue = "0") @Min(0) int from,
-                                              @RequestParam(defaultValue = "10") @Min(1) int size) {
+    public GatewayResponse<Object> getOtherItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                       @RequestParam(defaultValue = "10") @Min(1) int size) {
         log.debug("Поиск всех запросов.");
-        ResponseEntity foundRequests = itemRequestClient.getOtherItemRequests(userId, from, size);
-        log.debug("Найдены запросы: {}.", foundRequests.getBody());
-        return foundRequests;
+        return itemRequestClient.getOtherItemRequests(userId, from, size)
+                .peek(foundRequests -> log.debug("Найдены запросы: {}.", BaseClient.bodyForLog(foundRequests)));
     }
 
     @GetMapping("/{itemRequestId}")
-    public ResponseEntity getItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @PathVariable("itemRequestId") long itemRequestId) {
+    public GatewayResponse<Object> getItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                  @PathVariable("itemRequestId") long itemRequestId) {
         log.debug("Поиск запроса с id = {}.", itemRequestId);
-        ResponseEntity foundRequest = itemRequestClient.getItemRequest(userId, itemRequestId);
-        log.debug("Найден запрос: {}.", foundRequest);
-        return foundRequest;
+        return itemRequestClient.getItemRequest(userId, itemRequestId)
+                .peek(foundRequest -> log.debug("Найден запрос: {}.", foundRequest));
     }
 }
@@ -1,13 +1,10 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponse;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @Service
@@ -16,32 +13,27 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerTransportFactory transportFactory) {
+        super(transportFactory.create(API_PREFIX));
     }
 
-    public ResponseEntity<Object> saveUser(UserDto userDto) {
+    public GatewayResponse<Object> saveUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity getUser(long userId) {
+    public GatewayResponse<Object> getUser(long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity getAllUser() {
+    public GatewayResponse<Object> getAllUser() {
         return get("");
     }
 
-    public ResponseEntity updateUser(long userId, UserDto userDto) {
+    public GatewayResponse<Object> updateUser(long userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity deleteUser(long userId) {
+    public GatewayResponse<Object> deleteUser(long userId) {
         return delete("/" + userId, userId);
     }
 }
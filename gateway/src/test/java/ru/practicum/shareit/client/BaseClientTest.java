@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BaseClientTest {
+
+    @Test
+    void testGatewayHeadersDropConnectionHeadersAndContentLength() {
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.setContentType(MediaType.APPLICATION_JSON);
+        serverHeaders.setContentLength(42);
+        serverHeaders.setConnection("keep-alive");
+        serverHeaders.set("keep-alive", "timeout=60");
+        serverHeaders.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        serverHeaders.set(HttpHeaders.TE, "trailers");
+        serverHeaders.set(HttpHeaders.TRAILER, "X-Checksum");
+        serverHeaders.set(HttpHeaders.UPGRADE, "h2c");
+        serverHeaders.set("X-Query-Count", "3");
+
+        HttpHeaders headers = BaseClient.gatewayHeaders(serverHeaders);
+
+        assertEquals(Set.of(HttpHeaders.CONTENT_TYPE, "X-Query-Count"), headers.keySet());
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Ответ RestTemplate готов к возврату из контроллера, запрос обрабатывается без async servlet.
+ */
+@SpringBootTest(properties = "shareit-server.client=blocking")
+@AutoConfigureMockMvc
+class BlockingServerTransportIntegrationTest extends ServerTransportIntegrationTest {
+
+    @Override
+    protected MockHttpServletResponse perform(RequestBuilder request) throws Exception {
+        return mvc.perform(request)
+                .andExpect(request().asyncNotStarted())
+                .andReturn()
+                .getResponse();
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = "shareit-server.client=reactive")
+@AutoConfigureMockMvc
+class ReactiveServerTransportIntegrationTest extends ServerTransportIntegrationTest {
+
+    @Override
+    protected MockHttpServletResponse perform(RequestBuilder request) throws Exception {
+        MvcResult result = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(result))
+                .andReturn()
+                .getResponse();
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Запросы gateway к заглушке shareit-server на HttpServer из JDK. Наследники задают режим транспорта
+ * и проверяют, обрабатывается ли запрос асинхронно.
+ */
+abstract class ServerTransportIntegrationTest {
+    private static final String USER = "{\"id\": 1, \"name\": \"Никодим\", \"email\": \"owner@mail.ru\"}";
+    private static final String NOT_FOUND = "{\"error\": \"Пользователь с id = 2 не найден.\"}";
+    /**
+     * Больше 256 КБ - предела WebClient по умолчанию.
+     */
+    private static final String USERS = IntStream.rangeClosed(1, 20_000)
+            .mapToObj(id -> "{\"id\": " + id + ", \"name\": \"Пользователь\", \"email\": \"user" + id + "@mail.ru\"}")
+            .collect(Collectors.joining(",", "[", "]"));
+    private static final HttpServer SERVER = startServer();
+
+    @Autowired
+    protected MockMvc mvc;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    protected abstract MockHttpServletResponse perform(RequestBuilder request) throws Exception;
+
+    @Test
+    void testConnectionHeadersAreNotPassedToClient() throws Exception {
+        MockHttpServletResponse response = perform(get("/users/1"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(USER, response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("stub", response.getHeader("X-Request-Id"));
+        assertNull(response.getHeader(HttpHeaders.CONNECTION));
+        assertNull(response.getHeader("Keep-Alive"));
+        assertNull(response.getHeader(HttpHeaders.UPGRADE));
+        assertNull(response.getHeader(HttpHeaders.TRANSFER_ENCODING));
+        assertContentLengthMatchesBody(response);
+    }
+
+    @Test
+    void testErrorStatusAndBodyArePassedToClient() throws Exception {
+        MockHttpServletResponse response = perform(get("/users/2"));
+
+        assertEquals(404, response.getStatus());
+        assertEquals(NOT_FOUND, response.getContentAsString(StandardCharsets.UTF_8));
+        assertContentLengthMatchesBody(response);
+    }
+
+    @Test
+    void testDeleteErrorStatusIsPassedToClient() throws Exception {
+        MockHttpServletResponse response = perform(delete("/users/2"));
+
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    void testChunkedBodyLargerThanDefaultBufferIsPassedToClient() throws Exception {
+        MockHttpServletResponse response = perform(get("/users"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(USERS, response.getContentAsString(StandardCharsets.UTF_8));
+        assertNull(response.getHeader(HttpHeaders.TRANSFER_ENCODING));
+        assertContentLengthMatchesBody(response);
+    }
+
+    /**
+     * Длина тела, если она указана, выставлена gateway, а не скопирована из ответа сервера.
+     */
+    private static void assertContentLengthMatchesBody(MockHttpServletResponse response) {
+        String contentLength = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        assertTrue(contentLength == null
+                || Integer.parseInt(contentLength) == response.getContentAsByteArray().length);
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/users", ServerTransportIntegrationTest::handleUsers);
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void handleUsers(HttpExchange exchange) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        switch (exchange.getRequestURI().getPath()) {
+            case "/users/1":
+                headers.setConnection("keep-alive");
+                headers.set("Keep-Alive", "timeout=60");
+                headers.set(HttpHeaders.UPGRADE, "h2c");
+                headers.set("X-Request-Id", "stub");
+                respond(exchange, headers, 200, USER, false);
+                break;
+            case "/users":
+                respond(exchange, headers, 200, USERS, true);
+                break;
+            default:
+                respond(exchange, headers, 404, NOT_FOUND, false);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, HttpHeaders headers, int status, String body,
+                                boolean chunked) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().putAll(headers);
+        exchange.sendResponseHeaders(status, chunked ? 0 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
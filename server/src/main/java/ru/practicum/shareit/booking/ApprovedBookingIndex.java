@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Подтверждённые бронирования вещи для проверки при создании бронирования: интервалы занятости
+ * объединены и отсортированы по началу, пересечение ищется за O(log n) без запроса к БД.
+ * Загружаются только бронирования, которые ещё не закончились: прошедшее бронирование подтвердить нельзя.
+ * Кэш сбрасывается после фиксации подтверждения или отклонения и после импорта бронирований,
+ * а подтверждение всё равно проверяет пересечение в БД под блокировкой вещи (BookingOverlapChecker).
+ */
+@Component
+@RequiredArgsConstructor
+public class ApprovedBookingIndex {
+    public static final String CACHE_NAME = "approvedBookings";
+
+    private final BookingRepository bookingRepository;
+
+    @Cacheable(cacheNames = CACHE_NAME)
+    public ItemIntervals getIntervals(long itemId) {
+        ItemIntervals intervals = new ItemIntervals();
+        List<BookingPeriod> periods = bookingRepository.findPeriodsByItem_IdAndStatusAndEndAfter(itemId,
+                BookingStatus.APPROVED, LocalDateTime.now());
+        for (BookingPeriod period : periods) {
+            intervals.add(period.getStart(), period.getEnd());
+        }
+        return intervals;
+    }
+
+    @CacheEvict(cacheNames = CACHE_NAME)
+    public void evict(long itemId) {
+    }
+
+    @CacheEvict(cacheNames = CACHE_NAME, allEntries = true)
+    public void evictAll() {
+    }
+
+    public static class ItemIntervals {
+        private final NavigableMap<LocalDateTime, LocalDateTime> intervals = new TreeMap<>();
+
+        public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> candidate = intervals.floorEntry(end);
+            return candidate != null && !candidate.getValue().isBefore(start);
+        }
+
+        void add(LocalDateTime start, LocalDateTime end) {
+            LocalDateTime mergedStart = start;
+            LocalDateTime mergedEnd = end;
+            Map.Entry<LocalDateTime, LocalDateTime> candidate = intervals.floorEntry(end);
+            // Границы включительные, как и в запросе к БД: касающиеся интервалы тоже объединяются.
+            while (candidate != null && !candidate.getValue().isBefore(mergedStart)) {
+                if (candidate.getKey().isBefore(mergedStart)) {
+                    mergedStart = candidate.getKey();
+                }
+                if (candidate.getValue().isAfter(mergedEnd)) {
+                    mergedEnd = candidate.getValue();
+                }
+                intervals.remove(candidate.getKey());
+                candidate = intervals.floorEntry(mergedEnd);
+            }
+            intervals.put(mergedStart, mergedEnd);
+        }
+    }
+}
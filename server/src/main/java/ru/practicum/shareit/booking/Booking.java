@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -18,7 +19,8 @@ import java.time.LocalDateTime;
 })
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "bookings_seq")
+    @GenericGenerator(name = "bookings_seq", strategy = "ru.practicum.shareit.config.TableSequenceGenerator")
     private Long id;
     @Column(name = "start_date")
     private LocalDateTime start;
@@ -30,8 +32,17 @@ public class Booking {
     private User booker;
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+    @Enumerated(EnumType.STRING)
+    private BookingPhase phase;
 
     public Booking() {
         status = BookingStatus.WAITING;
     }
+
+    @PrePersist
+    void initPhase() {
+        if (phase == null && start != null && end != null) {
+            phase = BookingPhase.of(start, end, LocalDateTime.now());
+        }
+    }
 }
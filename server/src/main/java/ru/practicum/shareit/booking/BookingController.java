@@ -4,9 +4,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
 import java.util.List;
 
@@ -14,11 +19,18 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 @Slf4j
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-After";
+
     private BookingService bookingService;
+    private BookingExportService bookingExportService;
+    private BookingCountersService bookingCountersService;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, BookingExportService bookingExportService,
+                             BookingCountersService bookingCountersService) {
         this.bookingService = bookingService;
+        this.bookingExportService = bookingExportService;
+        this.bookingCountersService = bookingCountersService;
     }
 
     @PostMapping
@@ -52,28 +64,70 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestHeader("X-Sharer-User-Id") int userId,
-                                            @RequestParam(defaultValue = "ALL") String state,
-                                            @RequestParam(defaultValue = "0") int from,
-                                            @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<BookingDto>> getUserBookings(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                            @RequestParam(defaultValue = "ALL") String state,
+                                                            @RequestParam(defaultValue = "0") int from,
+                                                            @RequestParam(defaultValue = "10") int size,
+                                                            @RequestParam(required = false) String after) {
         log.debug("Получение списка всех бронирований пользователя (id = {}).", userId);
         BookingState stateEnum = BookingState.toEnum(state);
-        PageRequest page = PageRequest.of(from / size, size).withSort(Sort.Direction.DESC, "start");
-        List<BookingDto> foundBookings = bookingService.getUserBookings(userId, stateEnum, page);
+        List<BookingDto> foundBookings;
+        if (after == null) {
+            PageRequest page = PageRequest.of(from / size, size).withSort(Sort.Direction.DESC, "start", "id");
+            foundBookings = bookingService.getUserBookings(userId, stateEnum, page);
+        } else {
+            foundBookings = bookingService.getUserBookings(userId, stateEnum, BookingCursor.decode(after), size);
+        }
         log.debug("Найдены бронирования: {}.", foundBookings);
-        return foundBookings;
+        return withNextCursor(foundBookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsForAllUserItems(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                       @RequestParam(defaultValue = "ALL") String state,
-                                                       @RequestParam(defaultValue = "0") int from,
-                                                       @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<BookingDto>> getBookingsForAllUserItems(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                                       @RequestParam(defaultValue = "ALL") String state,
+                                                                       @RequestParam(defaultValue = "0") int from,
+                                                                       @RequestParam(defaultValue = "10") int size,
+                                                                       @RequestParam(required = false) String after) {
         log.debug("Получение списка бронирований для всех вещей пользователя (id = {}).", userId);
         BookingState stateEnum = BookingState.toEnum(state);
-        PageRequest page = PageRequest.of(from / size, size).withSort(Sort.Direction.DESC, "start");
-        List<BookingDto> foundBookings = bookingService.getBookingsForAllUserItems(userId, stateEnum, page);
+        List<BookingDto> foundBookings;
+        if (after == null) {
+            PageRequest page = PageRequest.of(from / size, size).withSort(Sort.Direction.DESC, "start", "id");
+            foundBookings = bookingService.getBookingsForAllUserItems(userId, stateEnum, page);
+        } else {
+            foundBookings = bookingService.getBookingsForAllUserItems(userId, stateEnum,
+                    BookingCursor.decode(after), size);
+        }
         log.debug("Найдены бронирования: {}.", foundBookings);
-        return foundBookings;
+        return withNextCursor(foundBookings, size);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getSummaryForAllUserItems(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Получение числа бронирований по состояниям для всех вещей пользователя (id = {}).", userId);
+        BookingSummaryDto summary = bookingCountersService.getOwnerSummary(userId);
+        log.debug("Всего бронирований: {}.", summary.getAll());
+        return summary;
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsForAllUserItems(
+            @RequestHeader("X-Sharer-User-Id") long userId, @RequestParam(defaultValue = "ndjson") String format) {
+        log.debug("Выгрузка всех бронирований вещей пользователя (id = {}) в формате {}.", userId, format);
+        BookingExportFormat exportFormat = BookingExportFormat.toEnum(format);
+        StreamingResponseBody body = bookingExportService.exportBookingsForAllUserItems(userId, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("bookings." + exportFormat.getExtension()).build().toString())
+                .body(body);
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
+        return response.body(bookings);
     }
 }
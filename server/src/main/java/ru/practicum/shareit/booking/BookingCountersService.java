@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+
+/**
+ * Счётчики бронирований по владельцу вещей. Методы изменения вызываются в транзакции, которая меняет бронирования.
+ */
+public interface BookingCountersService {
+    void ownerCreated(long ownerId);
+
+    void ownerDeleted(long ownerId);
+
+    void bookingAdded(long ownerId, Booking booking);
+
+    void statusChanged(long ownerId, BookingStatus oldStatus, BookingStatus newStatus);
+
+    void phaseChanged(BookingPhaseChangedEvent event);
+
+    /**
+     * Пересобирает счётчики целиком, например после импорта в обход сервисов.
+     */
+    void rebuild();
+
+    void rebuildIfInvalid();
+
+    BookingSummaryDto getOwnerSummary(long ownerId);
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.UserExistenceChecker;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * WAITING, REJECTED и общее число меняются вместе с бронированием, CURRENT, PAST и FUTURE - вместе с bookings.phase,
+ * то есть в транзакции BookingPhaseEngine, которая публикует BookingPhaseChangedEvent. Изменение блокирует только
+ * строку счётчиков своего владельца. Пересборка блокирует все строки счётчиков и пересчитывает их на месте,
+ * поэтому изменение, начатое до пересборки, в ней учтено, а начатое после - прибавится к пересчитанному значению.
+ * Пока счётчики не пересобраны (sweptAt = null), сводка считается по таблице бронирований.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingCountersServiceImpl implements BookingCountersService {
+    /**
+     * Вставки идут через JDBC: Spring Data не разбирает native insert.
+     */
+    private static final String INSERT_SQL = "insert into owner_booking_counters (owner_id) values (:ownerId)";
+    private static final String INSERT_MISSING_SQL = "insert into owner_booking_counters (owner_id) "
+            + "select u.id from users u "
+            + "where not exists (select 1 from owner_booking_counters c where c.owner_id = u.id)";
+    private static final String LOCK_ALL_SQL = "select owner_id from owner_booking_counters order by owner_id "
+            + "for update";
+    /**
+     * Отдельный запрос после блокировки строк: он видит бронирования всех транзакций, которые успели
+     * изменить счётчики до пересборки.
+     */
+    private static final String RECOUNT_SQL = "update owner_booking_counters c set (all_count, waiting_count, "
+            + "rejected_count, current_count, past_count, future_count) = ("
+            + "select count(b.id), "
+            + "coalesce(sum(case when b.status = 'WAITING' then 1 else 0 end), 0), "
+            + "coalesce(sum(case when b.status = 'REJECTED' then 1 else 0 end), 0), "
+            + "coalesce(sum(case when b.phase = 'CURRENT' then 1 else 0 end), 0), "
+            + "coalesce(sum(case when b.phase = 'PAST' then 1 else 0 end), 0), "
+            + "coalesce(sum(case when b.phase = 'FUTURE' then 1 else 0 end), 0) "
+            + "from items i join bookings b on b.item_id = i.id where i.owner_id = c.owner_id)";
+
+    private final OwnerBookingCountersRepository countersRepository;
+    private final BookingCountersSweepRepository sweepRepository;
+    private final UserExistenceChecker userExistenceChecker;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Override
+    @Transactional
+    public void ownerCreated(long ownerId) {
+        countersRepository.flush();
+        namedJdbcTemplate.update(INSERT_SQL, Map.of("ownerId", ownerId));
+    }
+
+    @Override
+    @Transactional
+    public void ownerDeleted(long ownerId) {
+        countersRepository.deleteByOwnerId(ownerId);
+    }
+
+    @Override
+    @Transactional
+    public void bookingAdded(long ownerId, Booking booking) {
+        countersRepository.add(ownerId, 1, count(booking.getStatus(), BookingStatus.WAITING),
+                count(booking.getStatus(), BookingStatus.REJECTED), count(booking.getPhase(), BookingPhase.CURRENT),
+                count(booking.getPhase(), BookingPhase.PAST), count(booking.getPhase(), BookingPhase.FUTURE));
+    }
+
+    @Override
+    @Transactional
+    public void statusChanged(long ownerId, BookingStatus oldStatus, BookingStatus newStatus) {
+        countersRepository.add(ownerId, 0,
+                count(newStatus, BookingStatus.WAITING) - count(oldStatus, BookingStatus.WAITING),
+                count(newStatus, BookingStatus.REJECTED) - count(oldStatus, BookingStatus.REJECTED),
+                0, 0, 0);
+    }
+
+    @Override
+    @Transactional
+    @EventListener
+    public void phaseChanged(BookingPhaseChangedEvent event) {
+        countersRepository.add(event.getOwnerId(), 0, 0, 0,
+                count(event.getTo(), BookingPhase.CURRENT) - count(event.getFrom(), BookingPhase.CURRENT),
+                count(event.getTo(), BookingPhase.PAST) - count(event.getFrom(), BookingPhase.PAST),
+                count(event.getTo(), BookingPhase.FUTURE) - count(event.getFrom(), BookingPhase.FUTURE));
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        rebuild(sweepRepository.lockExclusive());
+    }
+
+    @Override
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfInvalid() {
+        BookingCountersSweep sweep = sweepRepository.lockExclusive();
+        if (sweep.getSweptAt() == null) {
+            rebuild(sweep);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getOwnerSummary(long ownerId) {
+        if (!userExistenceChecker.exists(ownerId)) {
+            throw new NotFoundException("Пользователь с id = " + ownerId + " не найден.");
+        }
+        return countersRepository.findSummary(ownerId).orElseGet(() -> countersRepository.countByOwner(ownerId));
+    }
+
+    private void rebuild(BookingCountersSweep sweep) {
+        countersRepository.flush();
+        JdbcTemplate jdbcTemplate = namedJdbcTemplate.getJdbcTemplate();
+        jdbcTemplate.update(INSERT_MISSING_SQL);
+        jdbcTemplate.queryForList(LOCK_ALL_SQL, Long.class);
+        int owners = jdbcTemplate.update(RECOUNT_SQL);
+        sweep.setSweptAt(LocalDateTime.now());
+        log.info("Счётчики бронирований пересобраны для {} пользователей.", owners);
+    }
+
+    private static <T extends Enum<T>> long count(T value, T counted) {
+        return counted.equals(value) ? 1 : 0;
+    }
+}
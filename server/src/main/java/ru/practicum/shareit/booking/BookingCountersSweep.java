@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Момент последней пересборки owner_booking_counters, null - счётчики нужно пересобрать. Строка одна (id = 1),
+ * пересборка читает её с блокировкой, чтобы две пересборки не шли одновременно. Изменения счётчиков её не читают.
+ */
+@Entity
+@Table(name = "booking_counters_sweep")
+@Getter
+@Setter
+public class BookingCountersSweep {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+    private LocalDateTime sweptAt;
+}
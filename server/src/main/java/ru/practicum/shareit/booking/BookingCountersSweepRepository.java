@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.persistence.LockModeType;
+
+public interface BookingCountersSweepRepository extends JpaRepository<BookingCountersSweep, Integer> {
+    String SWEEP = "select s from BookingCountersSweep s where s.id = " + BookingCountersSweep.ID;
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(SWEEP)
+    BookingCountersSweep lockExclusive();
+}
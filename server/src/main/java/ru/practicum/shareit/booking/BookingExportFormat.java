@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.Arrays;
+
+public enum BookingExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    BookingExportFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public static BookingExportFormat toEnum(String str) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(str))
+                .findFirst()
+                .orElseThrow(() -> new ValidationException("Неизвестный формат выгрузки: " + str + "."));
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface BookingExportService {
+    /**
+     * Проверяет пользователя сразу, а бронирования его вещей читает из БД уже при записи ответа.
+     */
+    StreamingResponseBody exportBookingsForAllUserItems(long userId, BookingExportFormat format);
+}
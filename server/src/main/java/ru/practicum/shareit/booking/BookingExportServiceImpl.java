@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.UserExistenceChecker;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка всех бронирований вещей владельца. Строки пишутся в ответ по мере чтения курсора,
+ * а контекст персистентности очищается после каждой порции, поэтому память не растёт с числом бронирований.
+ * На время выгрузки занято одно соединение с БД.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExportServiceImpl implements BookingExportService {
+    static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final int CLEAR_EVERY = Integer.parseInt(BookingRepository.EXPORT_FETCH_SIZE);
+
+    private final BookingRepository bookingRepository;
+    private final UserExistenceChecker userExistenceChecker;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public StreamingResponseBody exportBookingsForAllUserItems(long userId, BookingExportFormat format) {
+        if (!userExistenceChecker.exists(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден.");
+        }
+        return out -> export(userId, format, out);
+    }
+
+    private void export(long userId, BookingExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            long count = transaction.execute(status -> {
+                try (Stream<Booking> bookings = bookingRepository.streamByOwner(userId)) {
+                    return write(bookings.iterator(), format, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            log.debug("Выгружено {} бронирований вещей пользователя (id = {}).", count, userId);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long write(Iterator<Booking> bookings, BookingExportFormat format, Writer writer) throws IOException {
+        if (format == BookingExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long count = 0;
+        while (bookings.hasNext()) {
+            Booking booking = bookings.next();
+            if (format == BookingExportFormat.CSV) {
+                writeCsv(booking, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(BookingMapper.toBookingDto(booking)));
+            }
+            writer.write('\n');
+            if (++count % CLEAR_EVERY == 0) {
+                entityManager.clear();
+            }
+        }
+        return count;
+    }
+
+    private static void writeCsv(Booking booking, Writer writer) throws IOException {
+        writer.write(booking.getId() + "," + DATE_FORMAT.format(booking.getStart()) + ","
+                + DATE_FORMAT.format(booking.getEnd()) + ","
+                + booking.getStatus() + "," + booking.getItem().getId() + ",");
+        writer.write(csvValue(booking.getItem().getName()));
+        writer.write("," + booking.getBooker().getId());
+    }
+
+    private static String csvValue(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -8,9 +8,6 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 public class BookingMapper {
 
     public static BookingDto toBookingDto(Booking booking) {
@@ -26,14 +23,6 @@ public class BookingMapper {
         return dto;
     }
 
-    public static List<BookingDto> toBookingDtoList(List<Booking> bookings) {
-        if (bookings == null) return null;
-        return bookings
-                .stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
-    }
-
     public static Booking toBooking(BookingRequestDto dto, User booker, Item item) {
         Booking booking = new Booking();
         if (dto.getStatus() != null) {
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проверка пересечения интервала с подтверждёнными бронированиями вещи, границы включительные.
+ * Реализация выбирается по spring.sql.init.platform, вместе с которой создаются нужные ей индексы.
+ */
+public interface BookingOverlapChecker {
+    boolean isOverlapped(long itemId, LocalDateTime start, LocalDateTime end);
+}
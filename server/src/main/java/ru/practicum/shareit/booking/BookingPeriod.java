@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Даты и фаза бронирования без загрузки сущности, для BookingPhaseEngine.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingPeriod {
+    private Long id;
+    private Long ownerId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookingPhase phase;
+
+    public LocalDateTime getPhaseEndsAt() {
+        return phase.endsAt(start, end);
+    }
+}
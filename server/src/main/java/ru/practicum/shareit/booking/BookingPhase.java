@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фаза бронирования по времени, хранится в bookings.phase. FUTURE сменяется на CURRENT в момент start,
+ * CURRENT на PAST - в момент end. Фазы сохранённых бронирований двигает BookingPhaseEngine.
+ */
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase of(LocalDateTime start, LocalDateTime end, LocalDateTime date) {
+        if (start.isAfter(date)) {
+            return FUTURE;
+        }
+        if (end.isAfter(date)) {
+            return CURRENT;
+        }
+        return PAST;
+    }
+
+    /**
+     * Момент, когда бронирование выйдет из этой фазы, null для PAST.
+     */
+    public LocalDateTime endsAt(LocalDateTime start, LocalDateTime end) {
+        switch (this) {
+            case FUTURE:
+                return start;
+            case CURRENT:
+                return end;
+            default:
+                return null;
+        }
+    }
+}
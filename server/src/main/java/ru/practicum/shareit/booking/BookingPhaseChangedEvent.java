@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Бронирование началось (FUTURE - CURRENT) или закончилось (CURRENT - PAST). Публикуется в транзакции,
+ * которая меняет bookings.phase: синхронные слушатели пишут в той же транзакции,
+ * для реакции после фиксации - @TransactionalEventListener.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingPhaseChangedEvent {
+    private final long bookingId;
+    private final long ownerId;
+    private final BookingPhase from;
+    private final BookingPhase to;
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Двигает bookings.phase по мере наступления start и end. В памяти - очередь с приоритетом по времени перехода
+ * (DelayQueue) только для бронирований, фаза которых закончится в ближайшие shareit.booking-phases.horizon:
+ * раз в reload-interval очередь пополняется из БД, новые бронирования добавляет BookingServiceImpl.
+ * Раз в tick наступившие переходы записываются одной транзакцией. Фазу меняет условный update, поэтому
+ * несколько экземпляров сервера не применят переход дважды, а переходы, потерянные при ошибке или
+ * остановке, найдутся при следующей загрузке. Запаздывание фазы - до tick, для бронирований,
+ * созданных на другом экземпляре за horizon до перехода, - до reload-interval.
+ */
+@Slf4j
+@Component
+public class BookingPhaseEngine {
+    private final BookingPhaseService bookingPhaseService;
+    private final Duration horizon;
+    private final DelayQueue<Transition> queue = new DelayQueue<>();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public BookingPhaseEngine(BookingPhaseService bookingPhaseService,
+                              @Value("${shareit.booking-phases.horizon:PT1M}") Duration horizon) {
+        this.bookingPhaseService = bookingPhaseService;
+        this.horizon = horizon;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-phases.reload-interval:PT30S}")
+    public void reload() {
+        List<BookingPeriod> periods = bookingPhaseService.findPhaseEndingBefore(LocalDateTime.now().plus(horizon));
+        periods.forEach(period -> schedule(period.getId(), period.getPhaseEndsAt()));
+        log.debug("Загружено {} бронирований для смены фазы, в очереди {}.", periods.size(), queue.size());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-phases.tick:PT1S}")
+    public void tick() {
+        List<Long> due = new ArrayList<>();
+        for (Transition transition = queue.poll(); transition != null; transition = queue.poll()) {
+            queued.remove(transition.bookingId);
+            due.add(transition.bookingId);
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        List<BookingPeriod> advanced = bookingPhaseService.advance(due, LocalDateTime.now());
+        advanced.forEach(period -> schedule(period.getId(), period.getPhaseEndsAt()));
+        log.debug("Сменилась фаза {} из {} бронирований.", advanced.size(), due.size());
+    }
+
+    /**
+     * Ставит в очередь новое бронирование, если его фаза закончится в пределах horizon.
+     */
+    public void schedule(Booking booking) {
+        if (booking.getPhase() != null) {
+            schedule(booking.getId(), booking.getPhase().endsAt(booking.getStart(), booking.getEnd()));
+        }
+    }
+
+    private void schedule(long bookingId, LocalDateTime dueAt) {
+        if (dueAt == null || dueAt.isAfter(LocalDateTime.now().plus(horizon)) || !queued.add(bookingId)) {
+            return;
+        }
+        queue.add(new Transition(bookingId, dueAt));
+    }
+
+    private static class Transition implements Delayed {
+        private final long bookingId;
+        private final LocalDateTime dueAt;
+
+        Transition(long bookingId, LocalDateTime dueAt) {
+            this.bookingId = bookingId;
+            this.dueAt = dueAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(LocalDateTime.now(), dueAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return dueAt.compareTo(((Transition) other).dueAt);
+        }
+    }
+}
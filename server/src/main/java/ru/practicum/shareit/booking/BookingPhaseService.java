@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingPhaseService {
+    List<BookingPeriod> findPhaseEndingBefore(LocalDateTime until);
+
+    /**
+     * Переводит бронирования в фазу на момент date и публикует BookingPhaseChangedEvent для каждого перехода.
+     * Возвращает бронирования, фаза которых изменилась, с новой фазой.
+     */
+    List<BookingPeriod> advance(Collection<Long> bookingIds, LocalDateTime date);
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class BookingPhaseServiceImpl implements BookingPhaseService {
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingPeriod> findPhaseEndingBefore(LocalDateTime until) {
+        return bookingRepository.findPhaseEndingBefore(until);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingPeriod> advance(Collection<Long> bookingIds, LocalDateTime date) {
+        List<BookingPeriod> advanced = new ArrayList<>();
+        for (BookingPeriod period : bookingRepository.findPeriodsByIdIn(bookingIds)) {
+            BookingPhase phase = BookingPhase.of(period.getStart(), period.getEnd(), date);
+            if (phase == period.getPhase() || bookingRepository.updatePhase(period.getId(), period.getPhase(),
+                    phase) == 0) {
+                continue;
+            }
+            eventPublisher.publishEvent(new BookingPhaseChangedEvent(period.getId(), period.getOwnerId(),
+                    period.getPhase(), phase));
+            advanced.add(new BookingPeriod(period.getId(), period.getOwnerId(), period.getStart(), period.getEnd(),
+                    phase));
+        }
+        return advanced;
+    }
+}
@@ -3,49 +3,198 @@ package ru.practicum.shareit.booking;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingDto;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> findByBooker_IdAndStartAfter(long userId, LocalDateTime date, Pageable pageable);
-
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> findByBooker_IdAndEndBefore(long userId, LocalDateTime date, Pageable pageable);
-
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> findByBooker_IdAndStartBeforeAndEndAfter(long userId, LocalDateTime start,
-                                                           LocalDateTime end, Pageable pageable);
-
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> findByBooker_IdAndStatus(long userId, BookingStatus bookingStatus, Pageable pageable);
-
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> findByBooker_Id(long userId, Pageable pageable);
-
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> findByItem_IdIn(List<Long> itemIds, Pageable pageable);
-
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> findByItem_IdInAndStatus(List<Long> itemIds, BookingStatus bookingStatus, Pageable pageable);
-
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> findByItem_IdInAndStartAfter(List<Long> itemIds, LocalDateTime date, Pageable pageable);
-
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> findByItem_IdInAndEndBefore(List<Long> itemIds, LocalDateTime date, Pageable pageable);
-
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> findByItem_Id(Long itemId);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String AFTER_CURSOR = " and (b.start < :afterStart or (b.start = :afterStart and b.id < :afterId))";
+    String CURSOR_ORDER = " order by b.start desc, b.id desc";
+    /**
+     * Списки бронирований выбираются сразу в BookingDto: без загрузки сущностей в контекст персистентности.
+     */
+    String BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, "
+            + "i.id, i.name, b.booker.id) from Booking b join b.item i";
+    String EXPORT_FETCH_SIZE = "500";
+    String APPROVED_OVERLAP = "select exists(select 1 from bookings b where b.item_id = :itemId "
+            + "and b.status = 'APPROVED' and tsrange(b.start_date, b.end_date, '[]') && tsrange(:start, :end, '[]'))";
+    String BOOKING_PERIOD = "select new ru.practicum.shareit.booking.BookingPeriod(b.id, i.owner.id, b.start, b.end, "
+            + "b.phase) from Booking b join b.item i";
+
+    /**
+     * Бронирование отдаётся вместе с названием вещи и проверкой владельца, поэтому вещь и автор
+     * загружаются тем же select.
+     */
+    @Override
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> findByItem_IdIn(List<Long> itemIds);
+    Optional<Booking> findById(Long id);
+
+    @Query(BOOKING_DTO + " where b.booker.id = :userId and b.start > :date")
+    List<BookingDto> findByBooker_IdAndStartAfter(@Param("userId") long userId, @Param("date") LocalDateTime date,
+                                                  Pageable pageable);
+
+    @Query(BOOKING_DTO + " where b.booker.id = :userId and b.end < :date")
+    List<BookingDto> findByBooker_IdAndEndBefore(@Param("userId") long userId, @Param("date") LocalDateTime date,
+                                                 Pageable pageable);
+
+    @Query(BOOKING_DTO + " where b.booker.id = :userId and b.phase = :phase")
+    List<BookingDto> findByBooker_IdAndPhase(@Param("userId") long userId, @Param("phase") BookingPhase phase,
+                                             Pageable pageable);
+
+    @Query(BOOKING_DTO + " where b.booker.id = :userId and b.status = :status")
+    List<BookingDto> findByBooker_IdAndStatus(@Param("userId") long userId, @Param("status") BookingStatus status,
+                                              Pageable pageable);
+
+    @Query(BOOKING_DTO + " where b.booker.id = :userId")
+    List<BookingDto> findByBooker_Id(@Param("userId") long userId, Pageable pageable);
+
+    @Query(BOOKING_DTO + " where i.owner.id = :ownerId")
+    List<BookingDto> findByItem_Owner_Id(@Param("ownerId") long ownerId, Pageable pageable);
+
+    @Query(BOOKING_DTO + " where i.owner.id = :ownerId and b.status = :status")
+    List<BookingDto> findByItem_Owner_IdAndStatus(@Param("ownerId") long ownerId,
+                                                  @Param("status") BookingStatus status, Pageable pageable);
+
+    @Query(BOOKING_DTO + " where i.owner.id = :ownerId and b.start > :date")
+    List<BookingDto> findByItem_Owner_IdAndStartAfter(@Param("ownerId") long ownerId,
+                                                      @Param("date") LocalDateTime date, Pageable pageable);
+
+    @Query(BOOKING_DTO + " where i.owner.id = :ownerId and b.end < :date")
+    List<BookingDto> findByItem_Owner_IdAndEndBefore(@Param("ownerId") long ownerId,
+                                                     @Param("date") LocalDateTime date, Pageable pageable);
+
+    @Query(value = "select id, start_date, end_date, item_id, booker_id, status, phase " +
+            "from (select b.*, row_number() over (partition by b.item_id order by b.start_date desc, b.id desc) rn " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.status <> 'REJECTED' and b.start_date < :now) last_bookings " +
+            "where rn = 1", nativeQuery = true)
+    List<Booking> findLastBookingsForItems(@Param("itemIds") List<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query(value = "select id, start_date, end_date, item_id, booker_id, status, phase " +
+            "from (select b.*, row_number() over (partition by b.item_id order by b.start_date, b.id) rn " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.status <> 'REJECTED' and b.start_date > :now) next_bookings " +
+            "where rn = 1", nativeQuery = true)
+    List<Booking> findNextBookingsForItems(@Param("itemIds") List<Long> itemIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Проверка по B-дереву bookings(item_id, status, start_date, end_date): индекс ограничивает только
+     * start_date <= end, поэтому просматриваются все более ранние подтверждённые бронирования вещи.
+     * Используется там, где нет GiST-индекса (H2), см. JpaBookingOverlapChecker.
+     */
+    boolean existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(long itemId, BookingStatus status,
+                                                                               LocalDateTime end,
+                                                                               LocalDateTime start);
+
+    /**
+     * Пересечение с подтверждёнными бронированиями вещи по GiST-индексу ix_bookings_approved_period
+     * (schema-postgresql.sql): выражение и условие status = 'APPROVED' совпадают с индексом.
+     * Границы включительные, как и в existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual.
+     */
+    @Query(value = APPROVED_OVERLAP, nativeQuery = true)
+    boolean existsApprovedOverlap(@Param("itemId") long itemId, @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end);
 
     List<Booking> findByItem_IdAndBooker_IdAndEndBefore(Long itemId, Long bookerId, LocalDateTime time);
 
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "booking_entity-graph")
-    List<Booking> findByItem_IdInAndStartBeforeAndEndAfter(List<Long> itemIds, LocalDateTime start,
-                                                           LocalDateTime end, Pageable pageable);
-
+    @Query(BOOKING_DTO + " where i.owner.id = :ownerId and b.phase = :phase")
+    List<BookingDto> findByItem_Owner_IdAndPhase(@Param("ownerId") long ownerId, @Param("phase") BookingPhase phase,
+                                                 Pageable pageable);
+
+    @Query(BOOKING_DTO + " where b.booker.id = :userId" + AFTER_CURSOR + CURSOR_ORDER)
+    List<BookingDto> findByBookerAfter(@Param("userId") long userId,
+                                       @Param("afterStart") LocalDateTime afterStart, @Param("afterId") long afterId,
+                                       Pageable pageable);
+
+    @Query(BOOKING_DTO + " where b.booker.id = :userId and b.phase = :phase" + AFTER_CURSOR + CURSOR_ORDER)
+    List<BookingDto> findByBookerAndPhaseAfter(@Param("userId") long userId, @Param("phase") BookingPhase phase,
+                                               @Param("afterStart") LocalDateTime afterStart,
+                                               @Param("afterId") long afterId, Pageable pageable);
+
+    @Query(BOOKING_DTO + " where b.booker.id = :userId and b.end < :now" + AFTER_CURSOR + CURSOR_ORDER)
+    List<BookingDto> findPastByBookerAfter(@Param("userId") long userId, @Param("now") LocalDateTime now,
+                                           @Param("afterStart") LocalDateTime afterStart,
+                                           @Param("afterId") long afterId, Pageable pageable);
+
+    @Query(BOOKING_DTO + " where b.booker.id = :userId and b.start > :now" + AFTER_CURSOR + CURSOR_ORDER)
+    List<BookingDto> findFutureByBookerAfter(@Param("userId") long userId, @Param("now") LocalDateTime now,
+                                             @Param("afterStart") LocalDateTime afterStart,
+                                             @Param("afterId") long afterId, Pageable pageable);
+
+    @Query(BOOKING_DTO + " where b.booker.id = :userId and b.status = :status"
+            + AFTER_CURSOR + CURSOR_ORDER)
+    List<BookingDto> findByBookerAndStatusAfter(@Param("userId") long userId, @Param("status") BookingStatus status,
+                                                @Param("afterStart") LocalDateTime afterStart,
+                                                @Param("afterId") long afterId, Pageable pageable);
+
+    @Query(BOOKING_DTO + " where i.owner.id = :ownerId" + AFTER_CURSOR + CURSOR_ORDER)
+    List<BookingDto> findByOwnerAfter(@Param("ownerId") long ownerId,
+                                      @Param("afterStart") LocalDateTime afterStart, @Param("afterId") long afterId,
+                                      Pageable pageable);
+
+    @Query(BOOKING_DTO + " where i.owner.id = :ownerId and b.phase = :phase" + AFTER_CURSOR + CURSOR_ORDER)
+    List<BookingDto> findByOwnerAndPhaseAfter(@Param("ownerId") long ownerId, @Param("phase") BookingPhase phase,
+                                              @Param("afterStart") LocalDateTime afterStart,
+                                              @Param("afterId") long afterId, Pageable pageable);
+
+    @Query(BOOKING_DTO + " where i.owner.id = :ownerId and b.end < :now" + AFTER_CURSOR + CURSOR_ORDER)
+    List<BookingDto> findPastByOwnerAfter(@Param("ownerId") long ownerId, @Param("now") LocalDateTime now,
+                                          @Param("afterStart") LocalDateTime afterStart,
+                                          @Param("afterId") long afterId, Pageable pageable);
+
+    @Query(BOOKING_DTO + " where i.owner.id = :ownerId and b.start > :now" + AFTER_CURSOR + CURSOR_ORDER)
+    List<BookingDto> findFutureByOwnerAfter(@Param("ownerId") long ownerId, @Param("now") LocalDateTime now,
+                                            @Param("afterStart") LocalDateTime afterStart,
+                                            @Param("afterId") long afterId, Pageable pageable);
+
+    @Query(BOOKING_DTO + " where i.owner.id = :ownerId and b.status = :status"
+            + AFTER_CURSOR + CURSOR_ORDER)
+    List<BookingDto> findByOwnerAndStatusAfter(@Param("ownerId") long ownerId,
+                                               @Param("status") BookingStatus status,
+                                               @Param("afterStart") LocalDateTime afterStart,
+                                               @Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Все бронирования вещей владельца для выгрузки. Строки читаются курсором порциями по EXPORT_FETCH_SIZE,
+     * поток нужно закрыть и читать внутри транзакции.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = :ownerId"
+            + CURSOR_ORDER)
+    Stream<Booking> streamByOwner(@Param("ownerId") long ownerId);
+
+    /**
+     * Бронирования, которые выйдут из своей фазы не позже until, в том числе уже просроченные.
+     */
+    @Query(BOOKING_PERIOD + " where b.phase = ru.practicum.shareit.booking.BookingPhase.FUTURE and b.start <= :until"
+            + " or b.phase = ru.practicum.shareit.booking.BookingPhase.CURRENT and b.end <= :until")
+    List<BookingPeriod> findPhaseEndingBefore(@Param("until") LocalDateTime until);
+
+    @Query(BOOKING_PERIOD + " where i.id = :itemId and b.status = :status and b.end > :now")
+    List<BookingPeriod> findPeriodsByItem_IdAndStatusAndEndAfter(@Param("itemId") long itemId,
+                                                                 @Param("status") BookingStatus status,
+                                                                 @Param("now") LocalDateTime now);
+
+    @Query(BOOKING_PERIOD + " where b.id in :ids")
+    List<BookingPeriod> findPeriodsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Меняет фазу, только если её ещё не сменили параллельно, возвращает число изменённых строк.
+     */
+    @Modifying
+    @Query("update Booking b set b.phase = :to where b.id = :id and b.phase = :from")
+    int updatePhase(@Param("id") long id, @Param("from") BookingPhase from, @Param("to") BookingPhase to);
 }
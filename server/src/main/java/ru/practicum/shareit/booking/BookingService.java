@@ -15,6 +15,10 @@ public interface BookingService {
 
     List<BookingDto> getUserBookings(long userId, BookingState state, PageRequest page);
 
+    List<BookingDto> getUserBookings(long userId, BookingState state, BookingCursor after, int size);
+
     List<BookingDto> getBookingsForAllUserItems(long userId, BookingState state, PageRequest page);
 
+    List<BookingDto> getBookingsForAllUserItems(long userId, BookingState state, BookingCursor after, int size);
+
 }
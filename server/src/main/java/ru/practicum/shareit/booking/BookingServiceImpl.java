@@ -1,46 +1,65 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.config.AfterCommit;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    /**
+     * Время выборки списка бронирований с тегами role (booker, owner), state и paging (offset, cursor).
+     */
+    public static final String QUERY_TIMER = "shareit.bookings.query";
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final UserExistenceChecker userExistenceChecker;
+    private final MeterRegistry meterRegistry;
+    private final BookingCountersService bookingCountersService;
+    private final BookingPhaseEngine bookingPhaseEngine;
+    private final BookingOverlapChecker bookingOverlapChecker;
+    private final ApprovedBookingIndex approvedBookingIndex;
 
     @Override
+    @Transactional
     public BookingDto addBooking(Long userId, BookingRequestDto bookingDto) {
-        User booker = findUserIfExists(userId);
+        User booker = getUserIfExists(userId);
         long itemId = bookingDto.getItemId();
         Item item = itemRepository.findByIdAndOwner_IdIsNot(bookingDto.getItemId(), userId)
                 .orElseThrow(() -> new NotFoundException("Вещь с id = " + itemId + " не найдена."));
-        if (!item.getAvailable() || !validateDateOfBooking(itemId, bookingDto.getStart(), bookingDto.getEnd())) {
+        if (!item.getAvailable()
+                || approvedBookingIndex.getIntervals(itemId).overlaps(bookingDto.getStart(), bookingDto.getEnd())) {
             throw new ValidationException("Данная вещь недоступна для бронирования.");
         }
         Booking savedBooking = bookingRepository.save(BookingMapper.toBooking(bookingDto, booker, item));
+        bookingCountersService.bookingAdded(item.getOwner().getId(), savedBooking);
+        AfterCommit.run(() -> bookingPhaseEngine.schedule(savedBooking));
         return BookingMapper.toBookingDto(savedBooking);
     }
 
     @Override
+    @Transactional
     public BookingDto approveOrRejectBooking(long userId, long bookingId, boolean approve) {
-        findUserIfExists(userId);
+        checkUserExists(userId);
         Booking booking = findBookingIfExists(bookingId);
         if (booking.getItem().getOwner().getId() != userId) {
             throw new ForbiddenException("Данная операция может быть выполнено только владельцем вещи.");
@@ -51,18 +70,30 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStart().isBefore(LocalDateTime.now()) || booking.getEnd().isBefore(LocalDateTime.now())) {
             throw new ValidationException("Некорректные даты бронирования.");
         }
+        BookingStatus oldStatus = booking.getStatus();
         if (approve) {
+            // без ограничения ex_bookings_approved_overlap (профиль booking-exclusion) пересечения проверяются здесь,
+            // блокировка вещи не даёт одновременно подтвердить два пересекающихся бронирования
+            itemRepository.lockById(booking.getItem().getId());
+            if (bookingOverlapChecker.isOverlapped(booking.getItem().getId(), booking.getStart(), booking.getEnd())) {
+                throw new ValidationException("Вещь уже забронирована на эти даты.");
+            }
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
-        bookingRepository.save(booking);
+        // строка бронирования блокируется до счётчиков, в том же порядке, что и при смене фазы
+        bookingRepository.saveAndFlush(booking);
+        bookingCountersService.statusChanged(userId, oldStatus, booking.getStatus());
+        long itemId = booking.getItem().getId();
+        AfterCommit.run(() -> approvedBookingIndex.evict(itemId));
         return BookingMapper.toBookingDto(booking);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingDto getBooking(long userId, long bookingId) {
-        findUserIfExists(userId);
+        checkUserExists(userId);
         Booking booking = findBookingIfExists(bookingId);
         if (booking.getBooker().getId() != userId && booking.getItem().getOwner().getId() != userId) {
             throw new ForbiddenException("Данная операция может быть выполнена либо автором бронирования, " +
@@ -72,13 +103,14 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getUserBookings(long userId, BookingState state, PageRequest page) {
-        findUserIfExists(userId);
-        List<Booking> foundBookings = null;
+        checkUserExists(userId);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<BookingDto> foundBookings = null;
         switch (state) {
             case CURRENT:
-                foundBookings = bookingRepository.findByBooker_IdAndStartBeforeAndEndAfter(userId,
-                        LocalDateTime.now(), LocalDateTime.now(), page);
+                foundBookings = bookingRepository.findByBooker_IdAndPhase(userId, BookingPhase.CURRENT, page);
                 break;
             case PAST:
                 foundBookings = bookingRepository.findByBooker_IdAndEndBefore(userId, LocalDateTime.now(),
@@ -97,61 +129,135 @@ public class BookingServiceImpl implements BookingService {
             default:
                 foundBookings = bookingRepository.findByBooker_Id(userId, page);
         }
-        return BookingMapper.toBookingDtoList(foundBookings);
+        sample.stop(queryTimer("booker", state, "offset"));
+        return foundBookings;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getUserBookings(long userId, BookingState state, BookingCursor after, int size) {
+        checkUserExists(userId);
+        PageRequest page = PageRequest.of(0, size);
+        LocalDateTime afterStart = after.getStart();
+        long afterId = after.getId();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<BookingDto> foundBookings = null;
+        switch (state) {
+            case CURRENT:
+                foundBookings = bookingRepository.findByBookerAndPhaseAfter(userId, BookingPhase.CURRENT,
+                        afterStart, afterId, page);
+                break;
+            case PAST:
+                foundBookings = bookingRepository.findPastByBookerAfter(userId, LocalDateTime.now(),
+                        afterStart, afterId, page);
+                break;
+            case FUTURE:
+                foundBookings = bookingRepository.findFutureByBookerAfter(userId, LocalDateTime.now(),
+                        afterStart, afterId, page);
+                break;
+            case REJECTED:
+                foundBookings = bookingRepository.findByBookerAndStatusAfter(userId, BookingStatus.REJECTED,
+                        afterStart, afterId, page);
+                break;
+            case WAITING:
+                foundBookings = bookingRepository.findByBookerAndStatusAfter(userId, BookingStatus.WAITING,
+                        afterStart, afterId, page);
+                break;
+            default:
+                foundBookings = bookingRepository.findByBookerAfter(userId, afterStart, afterId, page);
+        }
+        sample.stop(queryTimer("booker", state, "cursor"));
+        return foundBookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getBookingsForAllUserItems(long userId, BookingState state, PageRequest page) {
-        findUserIfExists(userId);
-        List<Item> userItems = itemRepository.findByOwner_Id(userId);
-        if (userItems.isEmpty()) return Collections.emptyList();
+        checkUserExists(userId);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<BookingDto> foundBookings = null;
+        switch (state) {
+            case CURRENT:
+                foundBookings = bookingRepository.findByItem_Owner_IdAndPhase(userId, BookingPhase.CURRENT, page);
+                break;
+            case PAST:
+                foundBookings = bookingRepository.findByItem_Owner_IdAndEndBefore(userId, LocalDateTime.now(), page);
+                break;
+            case FUTURE:
+                foundBookings = bookingRepository.findByItem_Owner_IdAndStartAfter(userId, LocalDateTime.now(), page);
+                break;
+            case REJECTED:
+                foundBookings = bookingRepository.findByItem_Owner_IdAndStatus(userId, BookingStatus.REJECTED, page);
+                break;
+            case WAITING:
+                foundBookings = bookingRepository.findByItem_Owner_IdAndStatus(userId, BookingStatus.WAITING, page);
+                break;
+            default:
+                foundBookings = bookingRepository.findByItem_Owner_Id(userId, page);
+        }
+        sample.stop(queryTimer("owner", state, "offset"));
+        return foundBookings;
+    }
 
-        List<Long> itemIds = userItems
-                .stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-        List<Booking> foundBookings = null;
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsForAllUserItems(long userId, BookingState state, BookingCursor after,
+                                                       int size) {
+        checkUserExists(userId);
+        PageRequest page = PageRequest.of(0, size);
+        LocalDateTime afterStart = after.getStart();
+        long afterId = after.getId();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<BookingDto> foundBookings = null;
         switch (state) {
             case CURRENT:
-                foundBookings = bookingRepository.findByItem_IdInAndStartBeforeAndEndAfter(itemIds,
-                        LocalDateTime.now(), LocalDateTime.now(), page);
+                foundBookings = bookingRepository.findByOwnerAndPhaseAfter(userId, BookingPhase.CURRENT,
+                        afterStart, afterId, page);
                 break;
             case PAST:
-                foundBookings = bookingRepository.findByItem_IdInAndEndBefore(itemIds, LocalDateTime.now(), page);
+                foundBookings = bookingRepository.findPastByOwnerAfter(userId, LocalDateTime.now(),
+                        afterStart, afterId, page);
                 break;
             case FUTURE:
-                foundBookings = bookingRepository.findByItem_IdInAndStartAfter(itemIds, LocalDateTime.now(), page);
+                foundBookings = bookingRepository.findFutureByOwnerAfter(userId, LocalDateTime.now(),
+                        afterStart, afterId, page);
                 break;
             case REJECTED:
-                foundBookings = bookingRepository.findByItem_IdInAndStatus(itemIds, BookingStatus.REJECTED, page);
+                foundBookings = bookingRepository.findByOwnerAndStatusAfter(userId, BookingStatus.REJECTED,
+                        afterStart, afterId, page);
                 break;
             case WAITING:
-                foundBookings = bookingRepository.findByItem_IdInAndStatus(itemIds, BookingStatus.WAITING, page);
+                foundBookings = bookingRepository.findByOwnerAndStatusAfter(userId, BookingStatus.WAITING,
+                        afterStart, afterId, page);
                 break;
             default:
-                foundBookings = bookingRepository.findByItem_IdIn(itemIds, page);
+                foundBookings = bookingRepository.findByOwnerAfter(userId, afterStart, afterId, page);
+        }
+        sample.stop(queryTimer("owner", state, "cursor"));
+        return foundBookings;
+    }
+
+    private Timer queryTimer(String role, BookingState state, String paging) {
+        return Timer.builder(QUERY_TIMER)
+                .tag("role", role)
+                .tag("state", state.name())
+                .tag("paging", paging)
+                .register(meterRegistry);
+    }
+
+    private void checkUserExists(long id) {
+        if (!userExistenceChecker.exists(id)) {
+            throw new NotFoundException("Пользователь с id = " + id + " не найден.");
         }
-        return BookingMapper.toBookingDtoList(foundBookings);
     }
 
-    private User findUserIfExists(long id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + id + " не найден."));
+    private User getUserIfExists(long id) {
+        checkUserExists(id);
+        return userRepository.getReferenceById(id);
     }
 
     private Booking findBookingIfExists(long bookingId) {
         return bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с id = " + bookingId + " не найдено."));
     }
-
-    private boolean validateDateOfBooking(long itemId, LocalDateTime start, LocalDateTime end) {
-        List<Booking> itemBookings = bookingRepository.findByItem_Id(itemId);
-        for (Booking booking : itemBookings) {
-            if (BookingStatus.APPROVED.equals(booking.getStatus())
-                    && !(start.isAfter(booking.getEnd()) || end.isBefore(booking.getStart()))) {
-                return false;
-            }
-        }
-        return true;
-    }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проверка через JPQL для БД без GiST (H2 в тестах и бенчмарках). Время растёт с числом
+ * подтверждённых бронирований вещи, начавшихся раньше конца интервала.
+ */
+@Component
+@ConditionalOnExpression("'${spring.sql.init.platform:}' != 'postgresql'")
+@RequiredArgsConstructor
+public class JpaBookingOverlapChecker implements BookingOverlapChecker {
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public boolean isOverlapped(long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(itemId,
+                BookingStatus.APPROVED, end, start);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "owner_booking_counters")
+@Getter
+@Setter
+public class OwnerBookingCounters {
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+    private long allCount;
+    private long waitingCount;
+    private long rejectedCount;
+    private long currentCount;
+    private long pastCount;
+    private long futureCount;
+}
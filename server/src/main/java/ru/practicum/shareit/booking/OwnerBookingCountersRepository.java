@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+
+import java.util.Optional;
+
+public interface OwnerBookingCountersRepository extends JpaRepository<OwnerBookingCounters, Long> {
+    /**
+     * Счётчики владельца, если они не ждут пересборки.
+     */
+    @Query("select new ru.practicum.shareit.booking.dto.BookingSummaryDto(c.allCount, c.waitingCount, "
+            + "c.rejectedCount, c.currentCount, c.pastCount, c.futureCount) "
+            + "from OwnerBookingCounters c, BookingCountersSweep s "
+            + "where c.ownerId = :ownerId and s.id = " + BookingCountersSweep.ID + " and s.sweptAt is not null")
+    Optional<BookingSummaryDto> findSummary(@Param("ownerId") long ownerId);
+
+    @Modifying
+    @Query("update OwnerBookingCounters c set c.allCount = c.allCount + :all, "
+            + "c.waitingCount = c.waitingCount + :waiting, c.rejectedCount = c.rejectedCount + :rejected, "
+            + "c.currentCount = c.currentCount + :current, c.pastCount = c.pastCount + :past, "
+            + "c.futureCount = c.futureCount + :future where c.ownerId = :ownerId")
+    int add(@Param("ownerId") long ownerId, @Param("all") long all, @Param("waiting") long waiting,
+            @Param("rejected") long rejected, @Param("current") long current, @Param("past") long past,
+            @Param("future") long future);
+
+    /**
+     * Счётчики одного владельца, посчитанные по таблице бронирований.
+     */
+    @Query("select new ru.practicum.shareit.booking.dto.BookingSummaryDto(count(b), "
+            + "coalesce(sum(case when b.status = ru.practicum.shareit.booking.BookingStatus.WAITING "
+            + "then 1 else 0 end), 0), "
+            + "coalesce(sum(case when b.status = ru.practicum.shareit.booking.BookingStatus.REJECTED "
+            + "then 1 else 0 end), 0), "
+            + "coalesce(sum(case when b.phase = ru.practicum.shareit.booking.BookingPhase.CURRENT "
+            + "then 1 else 0 end), 0), "
+            + "coalesce(sum(case when b.phase = ru.practicum.shareit.booking.BookingPhase.PAST "
+            + "then 1 else 0 end), 0), "
+            + "coalesce(sum(case when b.phase = ru.practicum.shareit.booking.BookingPhase.FUTURE "
+            + "then 1 else 0 end), 0)) "
+            + "from Booking b join b.item i where i.owner.id = :ownerId")
+    BookingSummaryDto countByOwner(@Param("ownerId") long ownerId);
+
+    @Modifying
+    @Query("delete from OwnerBookingCounters c where c.ownerId = :ownerId")
+    void deleteByOwnerId(@Param("ownerId") long ownerId);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Один проход по GiST-индексу (item_id, tsrange(start_date, end_date)) подтверждённых бронирований:
+ * время не зависит от числа более ранних бронирований вещи.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.sql.init.platform", havingValue = "postgresql")
+@RequiredArgsConstructor
+public class PostgresBookingOverlapChecker implements BookingOverlapChecker {
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public boolean isOverlapped(long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.existsApprovedOverlap(itemId, start, end);
+    }
+}
@@ -27,4 +27,14 @@ public class BookingDto {
         this.end = end;
         this.status = status;
     }
+
+    /**
+     * Конструктор для выборки из JPQL (select new ...) без загрузки сущностей.
+     */
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status, Long itemId,
+                      String itemName, Long bookerId) {
+        this(id, start, end, status);
+        this.item = new ItemForBookingDto(itemId, itemName);
+        this.booker = new UserForBookingDto(bookerId);
+    }
 }
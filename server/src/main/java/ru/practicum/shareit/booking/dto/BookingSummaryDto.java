@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Число бронирований вещей владельца по статусам и фазам.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSummaryDto {
+    private Long all;
+    private Long waiting;
+    private Long rejected;
+    private Long current;
+    private Long past;
+    private Long future;
+}
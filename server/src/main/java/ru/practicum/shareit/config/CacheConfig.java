@@ -0,0 +1,39 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Общие лимиты кэшей задаются через spring.cache.caffeine.spec, отдельные кэши можно
+ * переопределить через shareit.cache.specs.&lt;имя кэша&gt;.
+ * Статистика попаданий и вытеснений доступна в /actuator/metrics/cache.*.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheConfig.CacheSpecs.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> cacheSpecsCustomizer(CacheSpecs cacheSpecs) {
+        return cacheManager -> cacheSpecs.getSpecs().forEach((name, spec) ->
+                cacheManager.registerCustomCache(name, Caffeine.from(spec).build()));
+    }
+
+    @Getter
+    @Setter
+    @ConfigurationProperties("shareit.cache")
+    public static class CacheSpecs {
+        private Map<String, String> specs = new HashMap<>();
+    }
+}
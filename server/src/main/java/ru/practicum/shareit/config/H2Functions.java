@@ -0,0 +1,37 @@
+package ru.practicum.shareit.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Функции PostgreSQL, которых нет в H2. Регистрируются в schema-h2.sql.
+ */
+public final class H2Functions {
+
+    private H2Functions() {
+    }
+
+    /**
+     * setval(sequence, value) как в PostgreSQL: следующий nextval вернёт value + INCREMENT BY.
+     */
+    public static long setval(Connection connection, String sequence, long value) throws SQLException {
+        long increment;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "select increment from information_schema.sequences where sequence_name = upper(?)")) {
+            statement.setString(1, sequence);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new SQLException("Последовательность " + sequence + " не найдена.");
+                }
+                increment = resultSet.getLong(1);
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter sequence " + sequence + " restart with " + (value + increment));
+        }
+        return value;
+    }
+}
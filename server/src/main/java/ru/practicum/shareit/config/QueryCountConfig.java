@@ -0,0 +1,57 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Число SQL-запросов на один HTTP-запрос: метрика shareit.http.queries с тегами method и uri.
+ * Вне production то же число возвращается в заголовке X-Query-Count (см. QueryCountHeaderAdvice).
+ */
+@Configuration
+@RequiredArgsConstructor
+public class QueryCountConfig implements WebMvcConfigurer {
+    public static final String SUMMARY_NAME = "shareit.http.queries";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryCountInterceptor(meterRegistry.getIfAvailable()));
+    }
+
+    @RequiredArgsConstructor
+    static class QueryCountInterceptor implements HandlerInterceptor {
+        private final MeterRegistry meterRegistry;
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            QueryCountListener.reset();
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                    Exception ex) {
+            if (meterRegistry != null) {
+                Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder(SUMMARY_NAME)
+                        .baseUnit("queries")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                        .register(meterRegistry)
+                        .record(QueryCountListener.getCount());
+            }
+            QueryCountListener.clear();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Считает SQL-запросы, выполненные в текущем потоке через основной DataSource: и от Hibernate, и через
+ * JdbcTemplate. Подключается к datasource-proxy в SqlLogConfig. Пакет JDBC считается одним запросом,
+ * как и уходит в БД.
+ */
+public class QueryCountListener implements QueryExecutionListener {
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        COUNT.get()[0]++;
+    }
+
+    public static int getCount() {
+        return COUNT.get()[0];
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static void clear() {
+        COUNT.remove();
+    }
+}
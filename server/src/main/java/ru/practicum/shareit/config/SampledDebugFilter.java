@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import lombok.Setter;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Пропускает только долю rate отладочных сообщений логгеров с префиксом loggerPrefix.
+ * Решение принимается до форматирования, поэтому отброшенные сообщения не вызывают toString
+ * у аргументов (например, у списков найденных вещей). Подключается в logback-spring.xml.
+ */
+@Setter
+public class SampledDebugFilter extends TurboFilter {
+    private String loggerPrefix = "";
+    private double rate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (rate >= 1 || level.levelInt > Level.DEBUG_INT || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Пишет в лог shareit.sql запросы дольше порога: время, тип, текст и параметры одной строкой
+ * вида Time:812, Success:True, Type:Prepared, ... Query:["..."], Params:[(...)].
+ * В лог попадает только доля sampleRate таких запросов, чтобы при деградации БД лог не разрастался.
+ */
+@Slf4j(topic = "shareit.sql")
+public class SlowQueryLogListener implements QueryExecutionListener {
+    private final long thresholdMs;
+    private final double sampleRate;
+    private final int maxLength;
+    private final DefaultQueryLogEntryCreator entryCreator = new DefaultQueryLogEntryCreator();
+
+    public SlowQueryLogListener(Duration threshold, double sampleRate, int maxLength) {
+        this.thresholdMs = threshold.toMillis();
+        this.sampleRate = sampleRate;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMs || !log.isInfoEnabled()) {
+            return;
+        }
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        String entry = entryCreator.getLogEntry(execInfo, queryInfoList, false, false, false);
+        if (entry.length() > maxLength) {
+            entry = entry.substring(0, maxLength) + "...";
+        }
+        log.info("Медленный запрос: {}", entry);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Основной DataSource оборачивается в datasource-proxy, который видит каждый запрос: и от Hibernate,
+ * и через JdbcTemplate. QueryCountListener считает запросы для метрики shareit.http.queries, а при
+ * shareit.sql-log.enabled=true (по умолчанию) SlowQueryLogListener пишет медленные запросы с параметрами
+ * вместо spring.jpa.show-sql. Оборачивается только бин dataSource: при чтении с реплики это внешний
+ * маршрутизирующий DataSource, поэтому каждый запрос учитывается один раз.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlLogConfig.SqlLogProperties.class)
+public class SqlLogConfig {
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor sqlLogDataSourcePostProcessor(ObjectProvider<SqlLogProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource)) {
+                    return bean;
+                }
+                SqlLogProperties sqlLog = properties.getObject();
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create((DataSource) bean)
+                        .name(DATA_SOURCE_BEAN)
+                        .listener(new QueryCountListener());
+                if (sqlLog.isEnabled()) {
+                    builder.listener(new SlowQueryLogListener(sqlLog.getSlowThreshold(), sqlLog.getSampleRate(),
+                            sqlLog.getMaxLength()));
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    @Getter
+    @Setter
+    @ConfigurationProperties("shareit.sql-log")
+    public static class SqlLogProperties {
+        private boolean enabled = true;
+        private Duration slowThreshold = Duration.ofMillis(500);
+        private double sampleRate = 1;
+        private int maxLength = 2000;
+    }
+}
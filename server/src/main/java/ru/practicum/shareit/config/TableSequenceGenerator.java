@@ -0,0 +1,32 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Генератор id из последовательности &lt;таблица&gt;_seq с оптимизатором pooled: Hibernate берёт из БД
+ * сразу блок значений, поэтому вставки можно отправлять пакетами JDBC.
+ * Размер блока задаётся свойством spring.jpa.properties.shareit.id.allocation-size и должен совпадать
+ * с INCREMENT BY последовательностей в schema.sql.
+ */
+public class TableSequenceGenerator extends SequenceStyleGenerator {
+    public static final String ALLOCATION_SIZE = "shareit.id.allocation-size";
+    private static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = ConfigurationHelper.getInt(ALLOCATION_SIZE,
+                serviceRegistry.getService(ConfigurationService.class).getSettings(), DEFAULT_ALLOCATION_SIZE);
+        params.setProperty(SEQUENCE_PARAM, params.getProperty(PersistentIdentifierGenerator.TABLE) + "_seq");
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        params.setProperty(OPT_PARAM, "pooled");
+        super.configure(type, params, serviceRegistry);
+    }
+}
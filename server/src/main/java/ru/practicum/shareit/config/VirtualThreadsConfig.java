@@ -0,0 +1,43 @@
+package ru.practicum.shareit.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Обработка запросов сервера на виртуальных потоках, включается свойством shareit.virtual-threads.enabled=true.
+ * Запрос ждёт в основном ответа БД, число одновременных запросов к ней по-прежнему ограничивает пул Hikari.
+ * Потоки именуются tomcat-virtual-N: у безымянных виртуальных потоков в логе пустое имя потока.
+ * Thread.Builder есть только в JDK 21, а сервер собирается под 17, поэтому он вызывается через reflection.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+    private static final String THREAD_PREFIX = "tomcat-virtual-";
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor(THREAD_PREFIX);
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Виртуальные потоки требуют JDK 21, текущая версия: "
+                    + Runtime.version() + ".", e);
+        }
+    }
+}
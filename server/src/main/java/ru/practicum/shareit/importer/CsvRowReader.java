@@ -0,0 +1,103 @@
+package ru.practicum.shareit.importer;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV с заголовком в первой строке по RFC 4180: разделитель - запятая, значения с запятыми,
+ * кавычками или переводами строк заключаются в двойные кавычки, кавычка внутри удваивается.
+ */
+public class CsvRowReader implements RowReader {
+    private final Reader reader;
+    private final List<String> header;
+    private long line = 1;
+    private int pushedBack = -1;
+
+    public CsvRowReader(Reader reader) throws IOException {
+        this.reader = reader;
+        this.header = readRecord();
+        if (header == null) {
+            throw new ValidationException("CSV должен начинаться со строки заголовка.");
+        }
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        List<String> record;
+        long start;
+        do {
+            start = line;
+            record = readRecord();
+        } while (record != null && record.size() == 1 && record.get(0).isEmpty());
+        if (record == null) {
+            return null;
+        }
+        if (record.size() != header.size()) {
+            return ImportRow.invalid(start, "Ожидалось полей: " + header.size() + ", получено: " + record.size() + ".");
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            values.put(header.get(i), record.get(i));
+        }
+        return ImportRow.of(start, values);
+    }
+
+    /**
+     * Поля одной записи или null в конце файла. Запись в кавычках может занимать несколько строк.
+     */
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        pushedBack = following;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        return reader.read();
+    }
+}
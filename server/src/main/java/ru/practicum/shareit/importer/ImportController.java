@@ -0,0 +1,56 @@
+package ru.practicum.shareit.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.importer.dto.ImportReportDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Загрузка данных при переносе с другой платформы. Тело запроса читается потоком:
+ * JSON lines (application/x-ndjson) или CSV с заголовком (text/csv) в UTF-8.
+ */
+@RestController
+@RequestMapping("/import")
+@Slf4j
+public class ImportController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ImportService importService;
+    private final ObjectMapper objectMapper;
+    private final int defaultChunkSize;
+
+    @Autowired
+    public ImportController(ImportService importService, ObjectMapper objectMapper,
+                            @Value("${shareit.import.chunk-size:1000}") int defaultChunkSize) {
+        this.importService = importService;
+        this.objectMapper = objectMapper;
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    @PostMapping(path = "/{type}", consumes = {NDJSON, "text/csv"})
+    public ImportReportDto importRows(@PathVariable String type,
+                                      @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                      @RequestParam(required = false) Integer chunkSize,
+                                      InputStream body) throws IOException {
+        ImportType importType = ImportType.toEnum(type);
+        log.debug("Импорт {} в формате {}.", importType, contentType);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        RowReader rows = contentType.isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? new NdjsonRowReader(reader, objectMapper)
+                : new CsvRowReader(reader);
+        ImportReportDto report = importService.importRows(importType, rows,
+                chunkSize == null ? defaultChunkSize : chunkSize);
+        log.debug("Импорт завершён: загружено {}, отклонено {}.", report.getImported(), report.getRejected());
+        return report;
+    }
+}
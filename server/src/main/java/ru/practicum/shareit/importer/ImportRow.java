@@ -0,0 +1,95 @@
+package ru.practicum.shareit.importer;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Строка файла импорта: значения полей по имени столбца либо ошибка разбора.
+ * Пустые значения считаются отсутствующими.
+ */
+public class ImportRow {
+    private final long line;
+    private final Map<String, String> values;
+    private final String error;
+
+    private ImportRow(long line, Map<String, String> values, String error) {
+        this.line = line;
+        this.values = values;
+        this.error = error;
+    }
+
+    public static ImportRow of(long line, Map<String, String> values) {
+        return new ImportRow(line, values, null);
+    }
+
+    public static ImportRow invalid(long line, String error) {
+        return new ImportRow(line, null, error);
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String optional(String name) {
+        String value = values.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    public String required(String name) {
+        String value = optional(name);
+        if (value == null) {
+            throw new ValidationException("Поле " + name + " должно быть заполнено.");
+        }
+        return value;
+    }
+
+    public Long optionalLong(String name) {
+        String value = optional(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Поле " + name + " должно быть числом: " + value + ".");
+        }
+    }
+
+    public long requiredLong(String name) {
+        required(name);
+        return optionalLong(name);
+    }
+
+    public boolean requiredBoolean(String name) {
+        String value = required(name);
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw new ValidationException("Поле " + name + " должно быть true или false: " + value + ".");
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    public LocalDateTime optionalDateTime(String name) {
+        String value = optional(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Поле " + name + " должно быть датой вида 2024-01-31T12:00:00: "
+                    + value + ".");
+        }
+    }
+
+    public LocalDateTime requiredDateTime(String name) {
+        required(name);
+        return optionalDateTime(name);
+    }
+}
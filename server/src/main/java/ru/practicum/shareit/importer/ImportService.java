@@ -0,0 +1,7 @@
+package ru.practicum.shareit.importer;
+
+import ru.practicum.shareit.importer.dto.ImportReportDto;
+
+public interface ImportService {
+    ImportReportDto importRows(ImportType type, RowReader reader, int chunkSize);
+}
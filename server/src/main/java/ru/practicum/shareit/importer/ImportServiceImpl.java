@@ -0,0 +1,267 @@
+package ru.practicum.shareit.importer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.ApprovedBookingIndex;
+import ru.practicum.shareit.booking.BookingCountersService;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.importer.dto.ImportReportDto;
+import ru.practicum.shareit.importer.dto.RejectedRowDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Потоковый импорт: строки читаются порциями по chunkSize, для порции одним запросом на таблицу
+ * проверяются ссылки и занятые id (и email для пользователей), затем порция вставляется пакетом JDBC
+ * в отдельной транзакции. В памяти держится только текущая порция.
+ * id из файла сохраняются, чтобы ссылки между файлами остались верными; строкам без id выдаются блоки
+ * из той же последовательности, что и Hibernate. После импорта с id последовательность сдвигается за них.
+ */
+@Slf4j
+@Service
+public class ImportServiceImpl implements ImportService {
+    private static final int MAX_REPORTED_ROWS = 100;
+    /**
+     * Ограничение на число параметров в IN (...) и в одном пакете.
+     */
+    private static final int MAX_CHUNK_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingCountersService bookingCountersService;
+    private final ApprovedBookingIndex approvedBookingIndex;
+    private final int allocationSize;
+
+    public ImportServiceImpl(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+                             TransactionTemplate transactionTemplate, ItemSearchEngine itemSearchEngine,
+                             BookingCountersService bookingCountersService, ApprovedBookingIndex approvedBookingIndex,
+                             @Value("${spring.jpa.properties.shareit.id.allocation-size:50}") int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.itemSearchEngine = itemSearchEngine;
+        this.bookingCountersService = bookingCountersService;
+        this.approvedBookingIndex = approvedBookingIndex;
+        this.allocationSize = allocationSize;
+    }
+
+    @Override
+    public ImportReportDto importRows(ImportType type, RowReader reader, int chunkSize) {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new ValidationException("Размер порции должен быть от 1 до " + MAX_CHUNK_SIZE + ".");
+        }
+        long started = System.nanoTime();
+        ImportReportDto report = new ImportReportDto();
+        report.setType(type.name());
+        report.setChunkSize(chunkSize);
+        boolean explicitIds = false;
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        try {
+            for (ImportRow row = reader.next(); row != null; row = reader.next()) {
+                report.setRead(report.getRead() + 1);
+                if (row.getError() != null) {
+                    reject(report, row, row.getError());
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    explicitIds |= writeChunk(type, chunk, report);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        explicitIds |= writeChunk(type, chunk, report);
+        if (explicitIds) {
+            advanceSequence(type);
+        }
+        if (report.getImported() > 0 && type != ImportType.REQUESTS) {
+            // строки вставлены в обход сервисов, счётчики бронирований пересобираются целиком
+            bookingCountersService.rebuild();
+        }
+        if (report.getImported() > 0 && type == ImportType.BOOKINGS) {
+            approvedBookingIndex.evictAll();
+        }
+
+        report.getRejectedRows().sort(Comparator.comparingLong(RejectedRowDto::getLine));
+        long elapsedMs = Math.max((System.nanoTime() - started) / 1_000_000, 1);
+        report.setElapsedMs(elapsedMs);
+        report.setRowsPerSecond(report.getImported() * 1000 / elapsedMs);
+        log.info("Импорт {}: прочитано {}, загружено {}, отклонено {} за {} мс.", type, report.getRead(),
+                report.getImported(), report.getRejected(), elapsedMs);
+        return report;
+    }
+
+    /**
+     * Вставляет порцию и возвращает true, если в ней были строки с id из файла.
+     */
+    private boolean writeChunk(ImportType type, List<ImportRow> chunk, ImportReportDto report) {
+        if (chunk.isEmpty()) {
+            return false;
+        }
+        List<ImportRow> rows = new ArrayList<>(chunk.size());
+        List<Object[]> params = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            try {
+                params.add(type.toParams(row));
+                rows.add(row);
+            } catch (ValidationException e) {
+                reject(report, row, e.getMessage());
+            }
+        }
+        rejectTaken(type, rows, params, report);
+        for (Map.Entry<String, String> reference : type.getReferences().entrySet()) {
+            rejectMissingReferences(reference.getKey(), reference.getValue(), rows, params, report);
+        }
+        if (rows.isEmpty()) {
+            return false;
+        }
+
+        Set<Long> explicitIds = new HashSet<>();
+        List<Object[]> withoutId = new ArrayList<>();
+        for (Object[] param : params) {
+            if (param[0] == null) {
+                withoutId.add(param);
+            } else {
+                explicitIds.add((Long) param[0]);
+            }
+        }
+        assignIds(type, withoutId, explicitIds);
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(type.getInsertSql(), params));
+        } catch (DataAccessException e) {
+            log.warn("Порция {} не загружена: {}", type, e.getMostSpecificCause().getMessage());
+            for (ImportRow row : rows) {
+                reject(report, row, "Порция не загружена: " + e.getMostSpecificCause().getMessage());
+            }
+            return false;
+        }
+        report.setImported(report.getImported() + rows.size());
+        if (type == ImportType.ITEMS) {
+            itemSearchEngine.indexAll(toItems(params));
+        }
+        return !explicitIds.isEmpty();
+    }
+
+    /**
+     * Отклоняет строки с id, которые уже есть в таблице или повторяются в порции,
+     * а для пользователей - ещё и с занятым email.
+     */
+    private void rejectTaken(ImportType type, List<ImportRow> rows, List<Object[]> params, ImportReportDto report) {
+        Set<Object> ids = existing(type.getExistingIdsSql(), values(params, 0), Long.class);
+        Set<Object> emails = type == ImportType.USERS
+                ? existing("select email from users where email in (:values)", values(params, 2), String.class)
+                : Set.of();
+        for (int i = 0; i < rows.size(); i++) {
+            Object id = params.get(i)[0];
+            Object email = type == ImportType.USERS ? params.get(i)[2] : null;
+            String reason = null;
+            if (id != null && !ids.add(id)) {
+                reason = "Запись с id = " + id + " уже существует.";
+            } else if (email != null && !emails.add(email)) {
+                reason = "Пользователь с email " + email + " уже существует.";
+            }
+            if (reason != null) {
+                reject(report, rows.remove(i), reason);
+                params.remove(i--);
+            }
+        }
+    }
+
+    private void rejectMissingReferences(String field, String table, List<ImportRow> rows, List<Object[]> params,
+                                         ImportReportDto report) {
+        List<Object> ids = new ArrayList<>();
+        for (ImportRow row : rows) {
+            ids.add(row.optionalLong(field));
+        }
+        Set<Object> referenced = new HashSet<>(ids);
+        referenced.remove(null);
+        Set<Object> found = existing("select id from " + table + " where id in (:values)", referenced, Long.class);
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            Object id = ids.get(i);
+            if (id != null && !found.contains(id)) {
+                reject(report, rows.remove(i), "Поле " + field + ": запись в " + table + " с id = " + id
+                        + " не найдена.");
+                params.remove(i);
+            }
+        }
+    }
+
+    /**
+     * Блок значения v последовательности - id от v - allocationSize + 1 до v, как у оптимизатора pooled.
+     */
+    private void assignIds(ImportType type, List<Object[]> params, Set<Long> taken) {
+        int next = 0;
+        while (next < params.size()) {
+            long hi = Objects.requireNonNull(jdbcTemplate.queryForObject(type.getNextIdSql(), Long.class));
+            for (long id = Math.max(1, hi - allocationSize + 1); id <= hi && next < params.size(); id++) {
+                if (!taken.contains(id)) {
+                    params.get(next++)[0] = id;
+                }
+            }
+        }
+    }
+
+    /**
+     * Сдвигает последовательность за максимальный id таблицы одним setval. Текущее значение берётся
+     * через nextval в том же операторе, поэтому блоки, уже выданные Hibernate, не выдаются повторно.
+     */
+    private void advanceSequence(ImportType type) {
+        jdbcTemplate.queryForObject(type.getAdvanceSequenceSql(), Long.class, allocationSize);
+    }
+
+    private Set<Object> existing(String sql, Set<Object> values, Class<?> type) {
+        if (values.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(sql, Map.of("values", values), type));
+    }
+
+    private static Set<Object> values(List<Object[]> params, int index) {
+        Set<Object> values = new HashSet<>();
+        for (Object[] param : params) {
+            if (param[index] != null) {
+                values.add(param[index]);
+            }
+        }
+        return values;
+    }
+
+    private static List<Item> toItems(List<Object[]> params) {
+        List<Item> items = new ArrayList<>(params.size());
+        for (Object[] param : params) {
+            Item item = new Item();
+            item.setId((Long) param[0]);
+            item.setName((String) param[1]);
+            item.setDescription((String) param[2]);
+            item.setAvailable((Boolean) param[3]);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static void reject(ImportReportDto report, ImportRow row, String reason) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getRejectedRows().size() < MAX_REPORTED_ROWS) {
+            report.getRejectedRows().add(new RejectedRowDto(row.getLine(), reason));
+        }
+    }
+}
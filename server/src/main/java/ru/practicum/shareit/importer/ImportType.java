@@ -0,0 +1,125 @@
+package ru.practicum.shareit.importer;
+
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Таблицы, которые можно загрузить импортом. Первый параметр вставки - id, null если в файле его нет.
+ * references - поля строки со ссылками на другие таблицы, они проверяются до вставки.
+ * Запросы к таблице и её последовательности собираются только из имён таблиц этих констант.
+ */
+public enum ImportType {
+    USERS("users", "insert into users (id, name, email) values (?, ?, ?)", Map.of()) {
+        @Override
+        Object[] toParams(ImportRow row) {
+            return new Object[]{row.optionalLong("id"), row.required("name"), row.required("email")};
+        }
+    },
+    REQUESTS("requests", "insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)",
+            Map.of("requestorId", "users")) {
+        @Override
+        Object[] toParams(ImportRow row) {
+            LocalDateTime created = row.optionalDateTime("created");
+            return new Object[]{row.optionalLong("id"), row.required("description"), row.requiredLong("requestorId"),
+                    Timestamp.valueOf(created == null ? LocalDateTime.now() : created)};
+        }
+    },
+    ITEMS("items", "insert into items (id, name, description, is_available, owner_id, item_request_id) " +
+            "values (?, ?, ?, ?, ?, ?)", Map.of("ownerId", "users", "requestId", "requests")) {
+        @Override
+        Object[] toParams(ImportRow row) {
+            return new Object[]{row.optionalLong("id"), row.required("name"), row.required("description"),
+                    row.requiredBoolean("available"), row.requiredLong("ownerId"), row.optionalLong("requestId")};
+        }
+    },
+    BOOKINGS("bookings", "insert into bookings (id, start_date, end_date, item_id, booker_id, status, phase) " +
+            "values (?, ?, ?, ?, ?, ?, ?)", Map.of("itemId", "items", "bookerId", "users")) {
+        @Override
+        Object[] toParams(ImportRow row) {
+            LocalDateTime start = row.requiredDateTime("start");
+            LocalDateTime end = row.requiredDateTime("end");
+            if (!end.isAfter(start)) {
+                throw new ValidationException("Окончание бронирования должно быть позже начала.");
+            }
+            return new Object[]{row.optionalLong("id"), Timestamp.valueOf(start), Timestamp.valueOf(end),
+                    row.requiredLong("itemId"), row.requiredLong("bookerId"), status(row.optional("status")).name(),
+                    BookingPhase.of(start, end, LocalDateTime.now()).name()};
+        }
+
+        private BookingStatus status(String value) {
+            if (value == null) {
+                return BookingStatus.WAITING;
+            }
+            return Arrays.stream(BookingStatus.values())
+                    .filter(status -> status.name().equalsIgnoreCase(value))
+                    .findFirst()
+                    .orElseThrow(() -> new ValidationException("Неизвестный статус бронирования: " + value + "."));
+        }
+    };
+
+    private final String table;
+    private final String insertSql;
+    private final Map<String, String> references;
+    private final String existingIdsSql;
+    private final String nextIdSql;
+    private final String advanceSequenceSql;
+
+    ImportType(String table, String insertSql, Map<String, String> references) {
+        this.table = table;
+        this.insertSql = insertSql;
+        this.references = references;
+        this.existingIdsSql = "select id from " + table + " where id in (:values)";
+        this.nextIdSql = "select nextval('" + table + "_seq')";
+        // один оператор: значение, выданное Hibernate между чтением и сдвигом, не выдаётся повторно
+        this.advanceSequenceSql = "select setval('" + table + "_seq', greatest((select coalesce(max(id), 0) from "
+                + table + "), nextval('" + table + "_seq')) + ?)";
+    }
+
+    public static ImportType toEnum(String str) {
+        return Arrays.stream(values())
+                .filter(type -> type.name().equalsIgnoreCase(str))
+                .findFirst()
+                .orElseThrow(() -> new ValidationException("Неизвестный тип импорта: " + str + "."));
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getInsertSql() {
+        return insertSql;
+    }
+
+    public Map<String, String> getReferences() {
+        return references;
+    }
+
+    public String getExistingIdsSql() {
+        return existingIdsSql;
+    }
+
+    /**
+     * Запрос следующего значения последовательности таблицы.
+     */
+    public String getNextIdSql() {
+        return nextIdSql;
+    }
+
+    /**
+     * Сдвиг последовательности за максимальный id таблицы, параметр - размер блока id.
+     */
+    public String getAdvanceSequenceSql() {
+        return advanceSequenceSql;
+    }
+
+    /**
+     * Параметры вставки строки, ValidationException если поля заполнены неверно.
+     */
+    abstract Object[] toParams(ImportRow row);
+}
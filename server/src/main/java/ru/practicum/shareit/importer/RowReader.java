@@ -0,0 +1,13 @@
+package ru.practicum.shareit.importer;
+
+import java.io.IOException;
+
+/**
+ * Последовательное чтение строк файла импорта без загрузки файла в память.
+ */
+public interface RowReader {
+    /**
+     * Следующая строка или null, если файл закончился.
+     */
+    ImportRow next() throws IOException;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.importer.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог импорта. В rejectedRows попадают только первые отклонённые строки, общее число - в rejected.
+ */
+@Getter
+@Setter
+public class ImportReportDto {
+    private String type;
+    private int chunkSize;
+    private long read;
+    private long imported;
+    private long rejected;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    private List<RejectedRowDto> rejectedRows = new ArrayList<>();
+}
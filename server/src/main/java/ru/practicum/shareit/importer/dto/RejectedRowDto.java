@@ -0,0 +1,13 @@
+package ru.practicum.shareit.importer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class RejectedRowDto {
+    private long line;
+    private String reason;
+}
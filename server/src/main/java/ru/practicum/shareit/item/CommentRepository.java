@@ -2,6 +2,8 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
@@ -13,4 +15,6 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, value = "comment_entity-graph")
     List<Comment> findByItem_IdIn(List<Long> itemIds);
 
+    @Query("select distinct c.item.id from Comment c where c.author.id = :authorId")
+    List<Long> findItemIdsByAuthor_Id(@Param("authorId") long authorId);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 
@@ -31,6 +32,15 @@ public class ItemController {
         return savedItem;
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchResultDto> addItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                             @RequestBody List<ItemShortDto> items) {
+        log.debug("Добавление {} вещей пользователя с id = {}.", items.size(), userId);
+        List<ItemBatchResultDto> results = itemService.addItems(userId, items);
+        log.debug("Пакет вещей обработан.");
+        return results;
+    }
+
     @PatchMapping("/{itemId}")
     public ItemShortDto updateItem(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable("itemId") long itemId,
                                    @RequestBody ItemShortDto item) {
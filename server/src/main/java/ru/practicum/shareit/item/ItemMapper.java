@@ -2,7 +2,6 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
-import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemForBookingDto;
@@ -11,7 +10,6 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 
-import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,24 +21,22 @@ public class ItemMapper {
                 item.getAvailable(), item.getOwner().getId(), requestId);
     }
 
-    public static ItemDto toItemDto(Item item, List<CommentDto> comments, List<Booking> bookingsForItem) {
+    public static ItemShortDto toItemShortDto(ItemShortView item) {
+        return new ItemShortDto(item.getId(), item.getName(), item.getDescription(),
+                item.getAvailable(), item.getOwnerId(), item.getRequestId());
+    }
+
+    public static ItemDto toItemDto(Item item, List<CommentDto> comments, Booking lastBooking, Booking nextBooking) {
         ItemDto dto = new ItemDto(item.getId(), item.getName(), item.getDescription(),
                 item.getAvailable(), item.getOwner().getId(), comments);
-        if (bookingsForItem == null) {
-            return dto;
-        }
-        Booking nextBooking = bookingsForItem
-                .stream()
-                .filter(b -> b.getStart().isAfter(LocalDateTime.now()) && !BookingStatus.REJECTED.equals(b.getStatus()))
-                .sorted((b1, b2) -> b1.getStart().compareTo(b2.getStart()))
-                .findFirst()
-                .orElse(null);
-        Booking lastBooking = bookingsForItem
-                .stream()
-                .filter(b -> b.getStart().isBefore(LocalDateTime.now()) && !BookingStatus.REJECTED.equals(b.getStatus()))
-                .sorted((b1, b2) -> b2.getStart().compareTo(b1.getStart()))
-                .findFirst()
-                .orElse(null);
+        dto.setLastBooking(lastBooking != null ? BookingMapper.toBookingShortDto(lastBooking) : null);
+        dto.setNextBooking(nextBooking != null ? BookingMapper.toBookingShortDto(nextBooking) : null);
+        return dto;
+    }
+
+    public static ItemDto toItemDto(ItemDto itemView, Booking lastBooking, Booking nextBooking) {
+        ItemDto dto = new ItemDto(itemView.getId(), itemView.getName(), itemView.getDescription(),
+                itemView.getAvailable(), itemView.getOwnerId(), itemView.getComments());
         dto.setLastBooking(lastBooking != null ? BookingMapper.toBookingShortDto(lastBooking) : null);
         dto.setNextBooking(nextBooking != null ? BookingMapper.toBookingShortDto(nextBooking) : null);
         return dto;
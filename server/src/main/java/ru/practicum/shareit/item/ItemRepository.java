@@ -2,29 +2,63 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    /**
+     * Списки вещей выбираются сразу в ItemShortDto. Id владельца и запроса берутся из внешних ключей items без join.
+     */
+    String ITEM_SHORT_DTO = "select new ru.practicum.shareit.item.dto.ItemShortDto(it.id, it.name, it.description, "
+            + "it.available, it.owner.id, it.itemRequest.id) from Item it";
+
     List<Item> findByOwner_Id(long userId);
 
     List<Item> findByOwner_Id(long userId, Pageable pageable);
 
     List<Item> findByItemRequest_Id(long itemRequestId);
 
-    List<Item> findByItemRequest_IdIn(List<Long> requestsIds);
+    @Query(ITEM_SHORT_DTO + " where it.itemRequest.id in :requestsIds")
+    List<ItemShortDto> findByItemRequest_IdIn(@Param("requestsIds") List<Long> requestsIds);
+
+    @Query(ITEM_SHORT_DTO + " where it.id in :ids")
+    List<ItemShortDto> findShortDtoByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Постраничный обход всех вещей по id: следующая страница начинается после последнего id предыдущей.
+     */
+    @Query(ITEM_SHORT_DTO + " where it.id > :lastId order by it.id")
+    List<ItemShortDto> findShortDtoByIdGreaterThan(@Param("lastId") long lastId, Pageable pageable);
 
 
-    @Query("select it " +
-            "from Item as it " +
+    @Query(ITEM_SHORT_DTO + " " +
             "where it.available = true and (lower(it.name) like lower(concat('%', ?1,'%')) " +
-            "or lower(it.description) like lower(concat('%', ?1,'%')))")
-    List<Item> findItemsByText(String text, Pageable pageable);
+            "or lower(it.description) like lower(concat('%', ?1,'%'))) " +
+            "order by case when lower(it.name) like lower(concat('%', ?1,'%')) then 0 else 1 end, it.id")
+    List<ItemShortDto> findItemsByText(String text, Pageable pageable);
+
+    @Query(value = "select it.id as id, it.name as name, it.description as description, " +
+            "it.is_available as available, it.owner_id as \"ownerId\", it.item_request_id as \"requestId\" " +
+            "from items it " +
+            "where it.is_available = true and (lower(it.name) like lower(concat('%', :text, '%')) " +
+            "or lower(it.description) like lower(concat('%', :text, '%'))) " +
+            "order by similarity(lower(it.name), lower(:text)) desc, " +
+            "similarity(lower(it.description), lower(:text)) desc, it.id", nativeQuery = true)
+    List<ItemShortView> findItemsByTextTrgm(@Param("text") String text, Pageable pageable);
 
     Optional<Item> findByIdAndOwner_IdIsNot(long itemId, long userId);
 
     Optional<Item> findByIdAndOwner_Id(long itemId, long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select it from Item it where it.id = :id")
+    Optional<Item> lockById(@Param("id") long id);
 }
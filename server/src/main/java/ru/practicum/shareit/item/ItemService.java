@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 
@@ -10,6 +11,8 @@ import java.util.List;
 public interface ItemService {
     ItemShortDto addItem(long userId, ItemShortDto item);
 
+    List<ItemBatchResultDto> addItems(long userId, List<ItemShortDto> items);
+
     ItemShortDto updateItem(long userId, long itemId, ItemShortDto item);
 
     ItemDto getItem(long userId, long itemId);
@@ -3,27 +3,38 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.config.AfterCommit;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 @Service
 @RequiredArgsConstructor
@@ -33,10 +44,14 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final UserExistenceChecker userExistenceChecker;
+    private final ItemViewCache itemViewCache;
 
     @Override
+    @Transactional
     public ItemShortDto addItem(long userId, ItemShortDto itemDto) {
-        User user = findUserIfExists(userId);
+        User user = getUserIfExists(userId);
         Long requestId = itemDto.getRequestId();
         ItemRequest itemRequest = null;
         if (requestId != null) {
@@ -45,13 +60,56 @@ public class ItemServiceImpl implements ItemService {
         }
         Item item = ItemMapper.toItem(itemDto, user, itemRequest);
         item.setOwner(user);
-        item = itemRepository.save(item);
-        return ItemMapper.toItemShortDto(item);
+        Item savedItem = itemRepository.save(item);
+        AfterCommit.run(() -> itemSearchEngine.index(savedItem));
+        return ItemMapper.toItemShortDto(savedItem);
     }
 
+    /**
+     * Владелец проверяется один раз, запросы загружаются одним select, вещи без ошибок
+     * сохраняются одним saveAll пакетами JDBC (hibernate.jdbc.batch_size).
+     */
     @Override
+    @Transactional
+    public List<ItemBatchResultDto> addItems(long userId, List<ItemShortDto> itemDtos) {
+        User user = getUserIfExists(userId);
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemShortDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(toMap(ItemRequest::getId, identity()));
+
+        ItemBatchResultDto[] results = new ItemBatchResultDto[itemDtos.size()];
+        List<Item> items = new ArrayList<>();
+        List<Integer> itemIndexes = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemShortDto itemDto = itemDtos.get(i);
+            String error = validateNewItem(itemDto, requests);
+            if (error != null) {
+                results[i] = new ItemBatchResultDto(i, null, error);
+                continue;
+            }
+            ItemRequest itemRequest = itemDto.getRequestId() == null ? null : requests.get(itemDto.getRequestId());
+            items.add(ItemMapper.toItem(itemDto, user, itemRequest));
+            itemIndexes.add(i);
+        }
+        if (!items.isEmpty()) {
+            items = itemRepository.saveAll(items);
+            List<Item> savedItems = items;
+            AfterCommit.run(() -> itemSearchEngine.indexAll(savedItems));
+        }
+        for (int i = 0; i < items.size(); i++) {
+            int index = itemIndexes.get(i);
+            results[index] = new ItemBatchResultDto(index, ItemMapper.toItemShortDto(items.get(i)), null);
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional
     public ItemShortDto updateItem(long userId, long itemId, ItemShortDto itemDto) {
-        findUserIfExists(userId);
+        checkUserExists(userId);
         Item item = itemRepository.findByIdAndOwner_Id(itemId, userId)
                 .orElseThrow(() -> new NotFoundException("Данная вещь для указанного пользователя не найдена."));
         if (itemDto.getName() != null) {
@@ -64,25 +122,33 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
         itemRepository.save(item);
+        AfterCommit.run(() -> {
+            itemSearchEngine.index(item);
+            itemViewCache.evict(itemId);
+        });
         return ItemMapper.toItemShortDto(item);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemDto getItem(long userId, long itemId) {
-        findUserIfExists(userId);
-        Item item = findItemIfExists(itemId);
-        List<Comment> comments = commentRepository.findByItem_Id(item.getId());
-        if (item.getOwner().getId().equals(userId)) {
-            List<Booking> bookingsForItem = bookingRepository.findByItem_Id(item.getId());
-            return ItemMapper.toItemDto(item, CommentMapper.toCommentDtoList(comments), bookingsForItem);
+        checkUserExists(userId);
+        ItemDto itemView = itemViewCache.getItemView(itemId);
+        if (!itemView.getOwnerId().equals(userId)) {
+            return itemView;
         }
-        return ItemMapper.toItemDto(item, CommentMapper.toCommentDtoList(comments), null);
+        LocalDateTime now = LocalDateTime.now();
+        Booking lastBooking = first(bookingRepository.findLastBookingsForItems(List.of(itemId), now));
+        Booking nextBooking = first(bookingRepository.findNextBookingsForItems(List.of(itemId), now));
+        return ItemMapper.toItemDto(itemView, lastBooking, nextBooking);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> getUserItems(long userId, PageRequest page) {
-        findUserIfExists(userId);
+        checkUserExists(userId);
         List<Item> foundItems = itemRepository.findByOwner_Id(userId, page);
+        if (foundItems.isEmpty()) return new ArrayList<>();
         List<Long> itemIds = foundItems.stream()
                 .map(Item::getId)
                 .collect(toList());
@@ -91,29 +157,33 @@ public class ItemServiceImpl implements ItemService {
         Map<Item, List<Comment>> commentsMap = comments
                 .stream()
                 .collect(groupingBy(Comment::getItem, toList()));
-        List<Booking> bookings = bookingRepository.findByItem_IdIn(itemIds);
-        Map<Item, List<Booking>> bookingsMap = bookings
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = bookingRepository.findLastBookingsForItems(itemIds, now)
                 .stream()
-                .collect(groupingBy(Booking::getItem, toList()));
+                .collect(toMap(b -> b.getItem().getId(), identity()));
+        Map<Long, Booking> nextBookings = bookingRepository.findNextBookingsForItems(itemIds, now)
+                .stream()
+                .collect(toMap(b -> b.getItem().getId(), identity()));
 
         List<ItemDto> foundItemsDto = new ArrayList<>();
         for (Item item : foundItems) {
             List<Comment> itemComments = commentsMap.get(item);
-            List<Booking> itemBookings = bookingsMap.get(item);
-            foundItemsDto.add(ItemMapper.toItemDto(item, CommentMapper.toCommentDtoList(itemComments), itemBookings));
+            foundItemsDto.add(ItemMapper.toItemDto(item, CommentMapper.toCommentDtoList(itemComments),
+                    lastBookings.get(item.getId()), nextBookings.get(item.getId())));
         }
         return foundItemsDto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemShortDto> searchItems(long userId, String text, PageRequest page) {
-        findUserIfExists(userId);
+        checkUserExists(userId);
         if (text.isBlank()) return new ArrayList<>();
-        List<Item> foundItems = itemRepository.findItemsByText(text, page);
-        return ItemMapper.toItemShortDtoList(foundItems);
+        return itemSearchEngine.search(text, page);
     }
 
     @Override
+    @Transactional
     public CommentDto addComment(long userId, long itemId, CommentDto commentDto) {
         User user = findUserIfExists(userId);
         Item item = findItemIfExists(itemId);
@@ -124,14 +194,47 @@ public class ItemServiceImpl implements ItemService {
                     "который брал эту вещь в аренду, и только после окончания срока аренды.");
         }
         Comment comment = commentRepository.save(CommentMapper.toComment(commentDto, user, item));
+        AfterCommit.run(() -> itemViewCache.evict(itemId));
         return CommentMapper.toCommentDto(comment);
     }
 
+    private String validateNewItem(ItemShortDto itemDto, Map<Long, ItemRequest> requests) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Имя должно быть заполнено.";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Описание должно быть заполнено.";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Доступность должна быть указана.";
+        }
+        Long requestId = itemDto.getRequestId();
+        if (requestId != null && !requests.containsKey(requestId)) {
+            return "Запрос с id = " + requestId + " не найден.";
+        }
+        return null;
+    }
+
+    private void checkUserExists(long userId) {
+        if (!userExistenceChecker.exists(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден.");
+        }
+    }
+
+    private User getUserIfExists(long userId) {
+        checkUserExists(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
     private User findUserIfExists(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден."));
     }
 
+    private Booking first(List<Booking> bookings) {
+        return bookings.isEmpty() ? null : bookings.get(0);
+    }
+
     private Item findItemIfExists(Long itemId) {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с id = " + itemId + " не найденa."));
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item;
+
+/**
+ * Проекция строки items для нативных запросов, в которых нельзя использовать select new.
+ */
+public interface ItemShortView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Карточка вещи в том виде, в каком её видят все, кроме владельца: без бронирований.
+ * Поэтому смена статуса бронирования на неё не влияет, а сбрасывать её нужно только
+ * при изменении самой вещи, при добавлении отзыва и при смене имени автора отзыва.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemViewCache {
+    public static final String CACHE_NAME = "itemViews";
+
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+
+    @Cacheable(cacheNames = CACHE_NAME)
+    public ItemDto getItemView(long itemId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с id = " + itemId + " не найдена."));
+        return ItemMapper.toItemDto(item, CommentMapper.toCommentDtoList(commentRepository.findByItem_Id(itemId)),
+                null, null);
+    }
+
+    @CacheEvict(cacheNames = CACHE_NAME)
+    public void evict(long itemId) {
+    }
+}
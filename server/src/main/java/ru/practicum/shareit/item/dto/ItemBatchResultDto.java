@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Результат добавления одной вещи из пакета: сохранённая вещь либо текст ошибки.
+ * index - позиция вещи в запросе.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class ItemBatchResultDto {
+    private int index;
+    private ItemShortDto item;
+    private String error;
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
@@ -14,7 +15,8 @@ import java.time.LocalDateTime;
 @NamedEntityGraph(name = "comment_entity-graph", attributeNodes = @NamedAttributeNode("author"))
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "comments_seq")
+    @GenericGenerator(name = "comments_seq", strategy = "ru.practicum.shareit.config.TableSequenceGenerator")
     private Long id;
     private String text;
     @ManyToOne(fetch = FetchType.LAZY)
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 
@@ -13,7 +14,8 @@ import javax.persistence.*;
 @Setter
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "items_seq")
+    @GenericGenerator(name = "items_seq", strategy = "ru.practicum.shareit.config.TableSequenceGenerator")
     private Long id;
     private String name;
     private String description;
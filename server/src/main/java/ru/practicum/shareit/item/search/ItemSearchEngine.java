@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<ItemShortDto> search(String text, Pageable pageable);
+
+    /**
+     * Вызывается после фиксации транзакции, в которой сохранена вещь. Движкам, которые ищут прямо в БД, делать ничего не нужно.
+     */
+    default void index(Item item) {
+    }
+
+    default void indexAll(List<Item> items) {
+        items.forEach(this::index);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+
+import java.util.List;
+
+/**
+ * Поиск через JPQL like. Работает на любой БД, используется в тестах и на H2.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemShortDto> search(String text, Pageable pageable) {
+        return itemRepository.findItemsByText(text, pageable);
+    }
+}
@@ -0,0 +1,285 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Встроенный индекс Lucene для случаев, когда в PostgreSQL нельзя установить pg_trgm.
+ * Название и описание в нижнем регистре разбиваются на триграммы (для запросов из одного-двух символов -
+ * на 1- и 2-граммы), запрос ищется как фраза из своих триграмм, поэтому результаты те же, что у like
+ * в {@link ItemRepository#findItemsByText}.
+ * Изменения видны поиску после обновления NRT-читателя, а на диск фиксируются раз в
+ * shareit.search.lucene.commit-interval. Индекс, закрытый без {@link #close()}, при запуске строится заново.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "lucene")
+public class LuceneItemSearchEngine implements ItemSearchEngine {
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String SHORT_NAME = "name_short";
+    private static final String SHORT_DESCRIPTION = "description_short";
+    private static final String AVAILABLE = "available";
+    private static final int GRAM = 3;
+    private static final int REINDEX_BATCH_SIZE = 500;
+    private static final Sort RELEVANCE_THEN_ID = new Sort(SortField.FIELD_SCORE,
+            new SortField(ID, SortField.Type.LONG));
+    /**
+     * Состояние индекса в данных последнего commit. Значение при закрытии содержит версию набора полей:
+     * индекс другой версии тоже строится заново.
+     */
+    private static final String STATE = "shareit.state";
+    private static final String OPEN_STATE = "open";
+    private static final String CLOSED_STATE = "closed-ngram";
+
+    private final ItemRepository itemRepository;
+    private final Path indexPath;
+    private final Analyzer analyzer = new PerFieldAnalyzerWrapper(new KeywordAnalyzer(), Map.of(
+            NAME, nGrams(GRAM, GRAM), DESCRIPTION, nGrams(GRAM, GRAM),
+            SHORT_NAME, nGrams(1, GRAM - 1), SHORT_DESCRIPTION, nGrams(1, GRAM - 1)));
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    public LuceneItemSearchEngine(ItemRepository itemRepository,
+                                  @Value("${shareit.search.lucene.path:item-index}") Path indexPath) {
+        this.itemRepository = itemRepository;
+        this.indexPath = indexPath;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = new MMapDirectory(indexPath);
+        boolean closedCleanly = DirectoryReader.indexExists(directory)
+                && CLOSED_STATE.equals(SegmentInfos.readLatestCommit(directory).getUserData().get(STATE));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        if (!closedCleanly) {
+            reindex();
+        }
+        writer.setLiveCommitData(Map.of(STATE, OPEN_STATE).entrySet());
+        writer.commit();
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (searcherManager != null) {
+            searcherManager.close();
+        }
+        if (writer != null) {
+            writer.setLiveCommitData(Map.of(STATE, CLOSED_STATE).entrySet());
+            writer.close();
+        }
+        if (directory != null) {
+            directory.close();
+        }
+    }
+
+    public void reindex() throws IOException {
+        log.info("Построение индекса вещей в {}", indexPath);
+        writer.deleteAll();
+        Pageable batchSize = PageRequest.of(0, REINDEX_BATCH_SIZE);
+        List<ItemShortDto> batch = itemRepository.findShortDtoByIdGreaterThan(0, batchSize);
+        while (!batch.isEmpty()) {
+            for (ItemShortDto item : batch) {
+                writer.addDocument(toDocument(item.getId(), item.getName(), item.getDescription(),
+                        item.getAvailable()));
+            }
+            long lastId = batch.get(batch.size() - 1).getId();
+            batch = itemRepository.findShortDtoByIdGreaterThan(lastId, batchSize);
+        }
+        writer.commit();
+        if (searcherManager != null) {
+            searcherManager.maybeRefreshBlocking();
+        }
+        log.info("Проиндексировано вещей: {}", writer.getDocStats().numDocs);
+    }
+
+    /**
+     * Вызывается после фиксации транзакции, в которой сохранена вещь. Документ попадает в NRT-читатель сразу,
+     * если его не обновляет другой поток, иначе - при следующем {@link #flush()}.
+     */
+    @Override
+    public void index(Item item) {
+        indexAll(List.of(item));
+    }
+
+    @Override
+    public void indexAll(List<Item> items) {
+        try {
+            for (Item item : items) {
+                writer.updateDocument(new Term(ID, item.getId().toString()), toDocument(item.getId(),
+                        item.getName(), item.getDescription(), item.getAvailable()));
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Обновляет NRT-читатель и фиксирует накопленные изменения одним commit.
+     */
+    @Scheduled(fixedDelayString = "${shareit.search.lucene.commit-interval:PT5S}")
+    public void flush() throws IOException {
+        searcherManager.maybeRefreshBlocking();
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @Override
+    public List<ItemShortDto> search(String text, Pageable pageable) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int limit = (int) pageable.getOffset() + pageable.getPageSize();
+                ScoreDoc[] hits = searcher.search(toQuery(text), limit, RELEVANCE_THEN_ID).scoreDocs;
+                for (int i = (int) pageable.getOffset(); i < hits.length; i++) {
+                    Document document = searcher.doc(hits[i].doc);
+                    ids.add(document.getField(ID).numericValue().longValue());
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<Long, ItemShortDto> items = itemRepository.findShortDtoByIdIn(ids).stream()
+                .collect(toMap(ItemShortDto::getId, identity()));
+        List<ItemShortDto> result = new ArrayList<>();
+        for (Long id : ids) {
+            ItemShortDto item = items.get(id);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Любое совпадение даёт 1, совпадение в названии добавляет ещё 1, так что вещи с совпадением
+     * в названии идут первыми, как и в JPQL-запросе.
+     */
+    private Query toQuery(String text) throws IOException {
+        String lowerText = lower(text);
+        Query byName = substringQuery(NAME, SHORT_NAME, lowerText);
+        Query byDescription = substringQuery(DESCRIPTION, SHORT_DESCRIPTION, lowerText);
+        Query anyMatch = new BooleanQuery.Builder()
+                .add(byName, BooleanClause.Occur.SHOULD)
+                .add(byDescription, BooleanClause.Occur.SHOULD)
+                .build();
+        return new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(AVAILABLE, Boolean.TRUE.toString())), BooleanClause.Occur.FILTER)
+                .add(new ConstantScoreQuery(anyMatch), BooleanClause.Occur.MUST)
+                .add(new ConstantScoreQuery(byName), BooleanClause.Occur.SHOULD)
+                .build();
+    }
+
+    /**
+     * Короткий запрос целиком совпадает с одной из 1- и 2-грамм, длинный - с идущими подряд триграммами.
+     */
+    private Query substringQuery(String field, String shortField, String text) throws IOException {
+        if (text.codePointCount(0, text.length()) < GRAM) {
+            return new TermQuery(new Term(shortField, text));
+        }
+        PhraseQuery.Builder phrase = new PhraseQuery.Builder();
+        try (TokenStream tokens = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            PositionIncrementAttribute increment = tokens.addAttribute(PositionIncrementAttribute.class);
+            tokens.reset();
+            int position = -1;
+            while (tokens.incrementToken()) {
+                position += increment.getPositionIncrement();
+                phrase.add(new Term(field, term.toString()), position);
+            }
+            tokens.end();
+        }
+        return phrase.build();
+    }
+
+    private static Document toDocument(long id, String name, String description, Boolean available) {
+        Document document = new Document();
+        document.add(new StringField(ID, Long.toString(id), Field.Store.NO));
+        document.add(new StoredField(ID, id));
+        document.add(new NumericDocValuesField(ID, id));
+        document.add(new TextField(NAME, lower(name), Field.Store.NO));
+        document.add(new TextField(SHORT_NAME, lower(name), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, lower(description), Field.Store.NO));
+        document.add(new TextField(SHORT_DESCRIPTION, lower(description), Field.Store.NO));
+        document.add(new StringField(AVAILABLE, String.valueOf(Boolean.TRUE.equals(available)), Field.Store.NO));
+        return document;
+    }
+
+    /**
+     * Токены - все подстроки длиной от minGram до maxGram, включая пробелы, как у like.
+     */
+    private static Analyzer nGrams(int minGram, int maxGram) {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new NGramTokenizer(minGram, maxGram);
+                return new TokenStreamComponents(tokenizer);
+            }
+        };
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по триграммным GIN-индексам PostgreSQL (см. schema-postgresql.sql).
+ * Результаты упорядочены по похожести названия на запрос.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+@RequiredArgsConstructor
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemShortDto> search(String text, Pageable pageable) {
+        return itemRepository.findItemsByTextTrgm(text, pageable).stream()
+                .map(ItemMapper::toItemShortDto)
+                .collect(Collectors.toList());
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
@@ -13,7 +14,8 @@ import java.time.LocalDateTime;
 @Setter
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "requests_seq")
+    @GenericGenerator(name = "requests_seq", strategy = "ru.practicum.shareit.config.TableSequenceGenerator")
     private Long id;
     private String description;
     @ManyToOne(fetch = FetchType.LAZY)
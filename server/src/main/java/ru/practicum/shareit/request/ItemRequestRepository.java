@@ -2,12 +2,23 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findByRequestor_Id(long userId);
+    /**
+     * Списки запросов выбираются сразу в ItemRequestDto, вещи добавляются к ним отдельным запросом.
+     */
+    String ITEM_REQUEST_DTO = "select new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, "
+            + "r.created) from ItemRequest r";
 
-    List<ItemRequest> findByRequestor_IdNot(long userId, Pageable pageable);
+    @Query(ITEM_REQUEST_DTO + " where r.requestor.id = :userId")
+    List<ItemRequestDto> findByRequestor_Id(@Param("userId") long userId);
+
+    @Query(ITEM_REQUEST_DTO + " where r.requestor.id <> :userId")
+    List<ItemRequestDto> findByRequestor_IdNot(@Param("userId") long userId, Pageable pageable);
 
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
@@ -11,9 +12,9 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -28,57 +29,65 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final UserExistenceChecker userExistenceChecker;
 
     @Override
+    @Transactional
     public ItemRequestShortDto addRequest(long userId, ItemRequestShortDto requestDto) {
-        User user = findUserIfExists(userId);
+        User user = getUserIfExists(userId);
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(requestDto, user);
         itemRequest = itemRequestRepository.save(itemRequest);
         return ItemRequestMapper.toItemRequestShortDto(itemRequest);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getUserItemRequests(long userId) {
-        findUserIfExists(userId);
-        List<ItemRequest> itemRequests = itemRequestRepository.findByRequestor_Id(userId);
+        checkUserExists(userId);
+        List<ItemRequestDto> itemRequests = itemRequestRepository.findByRequestor_Id(userId);
         if (itemRequests.isEmpty()) return Collections.emptyList();
-        return getItemRequestsDtoWithItems(itemRequests);
+        return addItems(itemRequests);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getOtherItemRequests(long userId, PageRequest page) {
-        findUserIfExists(userId);
-        return getItemRequestsDtoWithItems(itemRequestRepository.findByRequestor_IdNot(userId, page));
+        checkUserExists(userId);
+        return addItems(itemRequestRepository.findByRequestor_IdNot(userId, page));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequestDto getItemRequest(long userId, long itemRequestId) {
-        findUserIfExists(userId);
+        checkUserExists(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(itemRequestId)
                 .orElseThrow(() -> new NotFoundException("Запрос с id = " + itemRequestId + " не найден."));
         List<Item> itemsForRequest = itemRepository.findByItemRequest_Id(itemRequestId);
         return ItemRequestMapper.toItemRequestDto(itemRequest, ItemMapper.toItemShortDtoList(itemsForRequest));
     }
 
-    private List<ItemRequestDto> getItemRequestsDtoWithItems(List<ItemRequest> itemRequests) {
+    private List<ItemRequestDto> addItems(List<ItemRequestDto> itemRequests) {
         List<Long> requestsIds = itemRequests
                 .stream()
-                .map(ItemRequest::getId)
+                .map(ItemRequestDto::getId)
                 .collect(Collectors.toList());
-        List<Item> itemsForRequests = itemRepository.findByItemRequest_IdIn(requestsIds);
-        Map<ItemRequest, List<Item>> itemsMap = itemsForRequests
+        Map<Long, List<ItemShortDto>> itemsMap = itemRepository.findByItemRequest_IdIn(requestsIds)
                 .stream()
-                .collect(groupingBy(Item::getItemRequest, toList()));
-        List<ItemRequestDto> foundRequests = new ArrayList<>();
-        for (ItemRequest itemRequest : itemRequests) {
-            List<ItemShortDto> itemsForRequest = ItemMapper.toItemShortDtoList(itemsMap.get(itemRequest));
-            foundRequests.add(ItemRequestMapper.toItemRequestDto(itemRequest, itemsForRequest));
+                .collect(groupingBy(ItemShortDto::getRequestId, toList()));
+        for (ItemRequestDto itemRequest : itemRequests) {
+            itemRequest.setItems(itemsMap.getOrDefault(itemRequest.getId(), Collections.emptyList()));
         }
-        return foundRequests;
+        return itemRequests;
     }
 
-    private User findUserIfExists(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден."));
+    private void checkUserExists(long userId) {
+        if (!userExistenceChecker.exists(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден.");
+        }
+    }
+
+    private User getUserIfExists(long userId) {
+        checkUserExists(userId);
+        return userRepository.getReferenceById(userId);
     }
 }
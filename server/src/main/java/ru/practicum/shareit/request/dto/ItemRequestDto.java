@@ -6,6 +6,7 @@ import lombok.Setter;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 
 @Getter
@@ -16,4 +17,11 @@ public class ItemRequestDto {
     private String description;
     private LocalDateTime created;
     private List<ItemShortDto> items;
+
+    /**
+     * Конструктор для выборки из JPQL (select new ...), вещи задаются позже.
+     */
+    public ItemRequestDto(Long id, String description, LocalDateTime created) {
+        this(id, description, created, Collections.emptyList());
+    }
 }
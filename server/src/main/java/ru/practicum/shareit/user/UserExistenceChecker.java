@@ -0,0 +1,27 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Проверка заголовка X-Sharer-User-Id без запроса к БД на каждый вызов.
+ * Кэшируются только существующие пользователи, поэтому новый пользователь виден сразу после создания.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserExistenceChecker {
+    public static final String CACHE_NAME = "userExists";
+
+    private final UserRepository userRepository;
+
+    @Cacheable(cacheNames = CACHE_NAME, unless = "!#result")
+    public boolean exists(long userId) {
+        return userRepository.existsById(userId);
+    }
+
+    @CacheEvict(cacheNames = CACHE_NAME)
+    public void evict(long userId) {
+    }
+}
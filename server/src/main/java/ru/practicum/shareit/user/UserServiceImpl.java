@@ -2,7 +2,12 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCountersService;
+import ru.practicum.shareit.config.AfterCommit;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemViewCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -11,14 +16,20 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserExistenceChecker userExistenceChecker;
+    private final BookingCountersService bookingCountersService;
+    private final CommentRepository commentRepository;
+    private final ItemViewCache itemViewCache;
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> findAllUsers() {
         List<User> users = userRepository.findAll();
         return UserMapper.toUserDtoList(users);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto findUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь с заданным id не найден."));
@@ -26,15 +37,22 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto createUser(UserDto userDto) {
         User user = userRepository.save(UserMapper.toUser(userDto));
+        bookingCountersService.ownerCreated(user.getId());
         return UserMapper.toUserDto(user);
     }
 
     @Override
+    @Transactional
     public UserDto updateUser(Long id, UserDto userDto) {
         User userToUpdate = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id = " + id + " не найден."));
+        // имя автора хранится в кэшированных карточках вещей с его отзывами
+        List<Long> commentedItemIds = userDto.getName() != null && !userDto.getName().equals(userToUpdate.getName())
+                ? commentRepository.findItemIdsByAuthor_Id(id)
+                : List.of();
         if (userDto.getName() != null) {
             userToUpdate.setName(userDto.getName());
         }
@@ -42,12 +60,20 @@ public class UserServiceImpl implements UserService {
             userToUpdate.setEmail(userDto.getEmail());
         }
         User user = userRepository.save(userToUpdate);
+        // до фиксации параллельное чтение вернуло бы в кэш старую строку
+        AfterCommit.run(() -> {
+            userExistenceChecker.evict(id);
+            commentedItemIds.forEach(itemViewCache::evict);
+        });
         return UserMapper.toUserDto(user);
     }
 
     @Override
+    @Transactional
     public void deleteUserById(Long userId) {
+        bookingCountersService.ownerDeleted(userId);
         userRepository.deleteById(userId);
+        AfterCommit.run(() -> userExistenceChecker.evict(userId));
     }
 
 }
@@ -0,0 +1,11 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- ограничение создаётся один раз; тело DO в одинарных кавычках, потому что скрипт делится на команды по ';'
+DO 'BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conname = ''ex_bookings_approved_overlap'' AND conrelid = ''bookings''::regclass) THEN
+        ALTER TABLE bookings ADD CONSTRAINT ex_bookings_approved_overlap
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, ''[]'') WITH &&)
+            WHERE (status = ''APPROVED'');
+    END IF;
+END';
@@ -0,0 +1,2 @@
+-- функции PostgreSQL, которых нет в H2
+CREATE ALIAS IF NOT EXISTS SETVAL FOR 'ru.practicum.shareit.config.H2Functions.setval';
@@ -0,0 +1,19 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm ON items USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm ON items USING gin (lower(description) gin_trgm_ops);
+
+-- id раньше выдавал IDENTITY: сдвигаем последовательности за уже занятые значения
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), (SELECT COALESCE(MAX(id), 0) FROM users) + 50));
+SELECT setval('requests_seq', GREATEST((SELECT last_value FROM requests_seq), (SELECT COALESCE(MAX(id), 0) FROM requests) + 50));
+SELECT setval('items_seq', GREATEST((SELECT last_value FROM items_seq), (SELECT COALESCE(MAX(id), 0) FROM items) + 50));
+SELECT setval('bookings_seq', GREATEST((SELECT last_value FROM bookings_seq), (SELECT COALESCE(MAX(id), 0) FROM bookings) + 50));
+SELECT setval('comments_seq', GREATEST((SELECT last_value FROM comments_seq), (SELECT COALESCE(MAX(id), 0) FROM comments) + 50));
+
+-- проверка пересечений подтверждённых бронирований (PostgresBookingOverlapChecker): один проход по GiST
+-- вместо просмотра всех более ранних бронирований вещи в B-дереве ix_bookings_item_status_dates
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE INDEX IF NOT EXISTS ix_bookings_approved_period ON bookings
+    USING gist (item_id, tsrange(start_date, end_date, '[]')) WHERE status = 'APPROVED';
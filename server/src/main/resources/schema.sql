@@ -1,12 +1,19 @@
+-- INCREMENT BY совпадает с shareit.id.allocation-size
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL UNIQUE,
   CONSTRAINT pk_user PRIMARY KEY (id)
 );
 
 CREATE TABLE IF NOT EXISTS requests(
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     description VARCHAR(1000) NOT NULL,
     requestor_id BIGINT,
     created timestamp NOT NULL,
@@ -14,7 +21,7 @@ CREATE TABLE IF NOT EXISTS requests(
     CONSTRAINT fk_requests_to_users FOREIGN KEY(requestor_id) REFERENCES users(id)
 );
 CREATE TABLE IF NOT EXISTS items (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   name VARCHAR(255) NOT NULL,
   description VARCHAR(1000) NOT NULL,
   is_available BOOLEAN NOT NULL,
@@ -26,7 +33,7 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
  CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     start_date timestamp NOT NULL,
     end_date timestamp NOT NULL,
     item_id BIGINT,
@@ -38,7 +45,7 @@ CREATE TABLE IF NOT EXISTS items (
     );
 
     CREATE TABLE IF NOT EXISTS comments (
-      id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+      id BIGINT NOT NULL,
       text VARCHAR(1000) NOT NULL,
       item_id BIGINT,
       author_id BIGINT,
@@ -47,3 +54,51 @@ CREATE TABLE IF NOT EXISTS items (
       CONSTRAINT fk_comments_to_items FOREIGN KEY(item_id) REFERENCES items(id),
       CONSTRAINT fk_comments_to_users FOREIGN KEY(author_id) REFERENCES users(id)
     );
+
+-- фаза по времени (BookingPhase): FUTURE, CURRENT, PAST, её двигает BookingPhaseEngine
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(20);
+
+UPDATE bookings SET phase = CASE WHEN start_date > LOCALTIMESTAMP THEN 'FUTURE'
+    WHEN end_date > LOCALTIMESTAMP THEN 'CURRENT' ELSE 'PAST' END
+WHERE phase IS NULL;
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_dates ON bookings (item_id, status, start_date, end_date);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_phase ON bookings (booker_id, phase, start_date);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_phase ON bookings (item_id, phase, start_date);
+
+-- ближайшие смены фаз: FUTURE по start_date, CURRENT по end_date
+CREATE INDEX IF NOT EXISTS ix_bookings_phase_start ON bookings (phase, start_date);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_phase_end ON bookings (phase, end_date);
+
+-- заменены индексами по фазе
+DROP INDEX IF EXISTS ix_bookings_start_date;
+
+DROP INDEX IF EXISTS ix_bookings_end_date;
+
+CREATE INDEX IF NOT EXISTS ix_items_owner_id ON items (owner_id);
+
+-- счётчики бронирований по владельцу вещей для GET /bookings/owner/summary, current/past/future - по bookings.phase
+CREATE TABLE IF NOT EXISTS owner_booking_counters (
+  owner_id BIGINT NOT NULL,
+  all_count BIGINT NOT NULL DEFAULT 0,
+  waiting_count BIGINT NOT NULL DEFAULT 0,
+  rejected_count BIGINT NOT NULL DEFAULT 0,
+  current_count BIGINT NOT NULL DEFAULT 0,
+  past_count BIGINT NOT NULL DEFAULT 0,
+  future_count BIGINT NOT NULL DEFAULT 0,
+  CONSTRAINT pk_owner_booking_counters PRIMARY KEY (owner_id),
+  CONSTRAINT fk_owner_booking_counters_to_users FOREIGN KEY(owner_id) REFERENCES users(id)
+);
+
+-- одна строка: момент последней пересборки счётчиков, NULL - счётчики нужно пересобрать целиком
+CREATE TABLE IF NOT EXISTS booking_counters_sweep (
+  id INT NOT NULL,
+  swept_at timestamp,
+  CONSTRAINT pk_booking_counters_sweep PRIMARY KEY (id)
+);
+
+INSERT INTO booking_counters_sweep (id, swept_at)
+SELECT 1, NULL WHERE NOT EXISTS (SELECT 1 FROM booking_counters_sweep);
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Кэш сбрасывается только после фиксации, поэтому транзакции здесь настоящие, а данные удаляются после теста.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class ApprovedBookingIndexIntegrationTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+    private long ownerId;
+    private long bookerId;
+    private Item item;
+    private Cache cache;
+
+    @BeforeEach
+    void saveItem() {
+        ownerId = userService.createUser(new UserDto(null, "Никодим", "index-owner@mail.ru")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Петр Петрович", "index-booker@mail.ru")).getId();
+        item = new Item();
+        item.setName("Переноска для кота");
+        item.setDescription("Для кота среднего размера");
+        item.setAvailable(true);
+        item.setOwner(userRepository.getReferenceById(ownerId));
+        item = itemRepository.save(item);
+        cache = cacheManager.getCache(ApprovedBookingIndex.CACHE_NAME);
+    }
+
+    @AfterEach
+    void deleteData() {
+        jdbcTemplate.update("delete from bookings where item_id = ?", item.getId());
+        jdbcTemplate.update("delete from owner_booking_counters where owner_id in (?, ?)", ownerId, bookerId);
+        jdbcTemplate.update("delete from items where id = ?", item.getId());
+        jdbcTemplate.update("delete from users where id in (?, ?)", ownerId, bookerId);
+    }
+
+    @Test
+    void testApproveEvictsItemAfterCommit() {
+        BookingDto first = addBooking(start, start.plusDays(1));
+        addBooking(start.plusHours(12), start.plusDays(2));
+        assertNotNull(cache.get(item.getId()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingService.approveOrRejectBooking(ownerId, first.getId(), true);
+            assertNotNull(cache.get(item.getId()));
+        });
+
+        assertNull(cache.get(item.getId()));
+        ValidationException result = assertThrows(ValidationException.class,
+                () -> addBooking(start.plusHours(12), start.plusDays(2)));
+        assertEquals("Данная вещь недоступна для бронирования.", result.getMessage());
+        assertNotNull(cache.get(item.getId()));
+    }
+
+    @Test
+    void testRejectEvictsItem() {
+        BookingDto booking = addBooking(start, start.plusDays(1));
+        assertNotNull(cache.get(item.getId()));
+
+        bookingService.approveOrRejectBooking(ownerId, booking.getId(), false);
+
+        assertNull(cache.get(item.getId()));
+    }
+
+    @Test
+    void testRolledBackApproveKeepsCache() {
+        BookingDto booking = addBooking(start, start.plusDays(1));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingService.approveOrRejectBooking(ownerId, booking.getId(), true);
+            status.setRollbackOnly();
+        });
+
+        assertNotNull(cache.get(item.getId()));
+    }
+
+    private BookingDto addBooking(LocalDateTime bookingStart, LocalDateTime bookingEnd) {
+        return bookingService.addBooking(bookerId, new BookingRequestDto(item.getId(), bookingStart, bookingEnd,
+                null));
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ApprovedBookingIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    private ApprovedBookingIndex index;
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @BeforeEach
+    void initIndex() {
+        index = new ApprovedBookingIndex(bookingRepository);
+    }
+
+    @Test
+    void testOverlaps_InclusiveBounds() {
+        when(bookingRepository.findPeriodsByItem_IdAndStatusAndEndAfter(eq(1L), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(createPeriod(now, now.plusDays(2))));
+
+        ApprovedBookingIndex.ItemIntervals intervals = index.getIntervals(1L);
+
+        assertTrue(intervals.overlaps(now.plusDays(1), now.plusDays(3)));
+        assertTrue(intervals.overlaps(now.minusDays(1), now));
+        assertFalse(intervals.overlaps(now.plusDays(2).plusSeconds(1), now.plusDays(3)));
+        assertFalse(intervals.overlaps(now.minusDays(2), now.minusSeconds(1)));
+    }
+
+    @Test
+    void testOverlaps_MergesTouchingAndNestedIntervals() {
+        when(bookingRepository.findPeriodsByItem_IdAndStatusAndEndAfter(eq(1L), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(createPeriod(now, now.plusDays(1)),
+                        createPeriod(now.plusDays(3), now.plusDays(4)),
+                        createPeriod(now.plusHours(12), now.plusDays(3)),
+                        createPeriod(now.plusHours(1), now.plusHours(2))));
+
+        ApprovedBookingIndex.ItemIntervals intervals = index.getIntervals(1L);
+
+        assertTrue(intervals.overlaps(now.plusDays(2), now.plusDays(2).plusHours(1)));
+        assertTrue(intervals.overlaps(now.plusDays(3).plusHours(12), now.plusDays(5)));
+        assertFalse(intervals.overlaps(now.plusDays(4).plusSeconds(1), now.plusDays(5)));
+    }
+
+    private BookingPeriod createPeriod(LocalDateTime start, LocalDateTime end) {
+        return new BookingPeriod(1L, 1L, start, end, BookingPhase.FUTURE);
+    }
+}
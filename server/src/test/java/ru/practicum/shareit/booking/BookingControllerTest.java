@@ -6,11 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.item.dto.ItemForBookingDto;
 import ru.practicum.shareit.user.dto.UserForBookingDto;
 
@@ -19,10 +22,15 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -31,6 +39,10 @@ public class BookingControllerTest {
     private ObjectMapper mapper;
     @MockBean
     private BookingService bookingService;
+    @MockBean
+    private BookingExportService bookingExportService;
+    @MockBean
+    private BookingCountersService bookingCountersService;
     @Autowired
     private MockMvc mvc;
     private BookingDto bookingDto;
@@ -168,4 +180,62 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.id", is(bookingDto.getItem().getId()), Long.class))
                 .andExpect(jsonPath("$[0].item.name", is(bookingDto.getItem().getName())));
     }
+
+    @Test
+    public void getUserBookingsAfterCursor() throws Exception {
+        when(bookingService.getUserBookings(anyLong(), any(), any(BookingCursor.class), anyInt()))
+                .thenReturn(List.of(bookingDto));
+        String after = new BookingCursor(bookingDto.getStart().plusDays(1), 5L).encode();
+
+        mvc.perform(MockMvcRequestBuilders.get("/bookings?state=ALL&size=1&after=" + after)
+                        .header("X-Sharer-User-Id", bookingDto.getBooker().getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        BookingCursor.of(bookingDto).encode()))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @Test
+    public void getBookingsForAllUserItemsWithWrongCursor() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/bookings/owner?after=wrong")
+                        .header("X-Sharer-User-Id", bookingDto.getBooker().getId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getSummaryForAllUserItems() throws Exception {
+        when(bookingCountersService.getOwnerSummary(1L))
+                .thenReturn(new BookingSummaryDto(6L, 1L, 1L, 2L, 1L, 2L));
+
+        mvc.perform(MockMvcRequestBuilders.get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(6)))
+                .andExpect(jsonPath("$.waiting", is(1)))
+                .andExpect(jsonPath("$.current", is(2)))
+                .andExpect(jsonPath("$.future", is(2)));
+    }
+
+    @Test
+    public void exportBookingsForAllUserItems() throws Exception {
+        when(bookingExportService.exportBookingsForAllUserItems(anyLong(), eq(BookingExportFormat.CSV)))
+                .thenReturn(out -> out.write("id\n1\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get("/bookings/owner/export?format=csv")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("bookings.csv")))
+                .andExpect(content().string("id\n1\n"));
+    }
+
+    @Test
+    public void exportBookingsForAllUserItemsWithWrongFormat() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/bookings/owner/export?format=xml")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,206 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class BookingCountersServiceImplIntegrationTest {
+    @Autowired
+    private BookingCountersService bookingCountersService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private OwnerBookingCountersRepository countersRepository;
+    @Autowired
+    private BookingPhaseEngine bookingPhaseEngine;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long ownerId;
+    private long bookerId;
+    private Item item;
+
+    @BeforeEach
+    void saveItem() {
+        ownerId = userService.createUser(new UserDto(null, "Никодим", "owner@mail.ru")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Петр Петрович", "booker@mail.ru")).getId();
+        item = new Item();
+        item.setName("Переноска для кота");
+        item.setDescription("Для кота среднего размера");
+        item.setAvailable(true);
+        item.setOwner(userRepository.getReferenceById(ownerId));
+        item = itemRepository.save(item);
+        bookingCountersService.rebuild();
+    }
+
+    @Test
+    void testSummary_UpdatedByAddAndApprove() {
+        LocalDateTime now = LocalDateTime.now();
+        BookingDto first = addBooking(now.plusDays(1), now.plusDays(2));
+        addBooking(now.plusDays(3), now.plusDays(4));
+        bookingService.approveOrRejectBooking(ownerId, first.getId(), false);
+
+        BookingSummaryDto summary = bookingCountersService.getOwnerSummary(ownerId);
+
+        assertEquals(2, summary.getAll());
+        assertEquals(1, summary.getWaiting());
+        assertEquals(1, summary.getRejected());
+        assertEquals(2, summary.getFuture());
+        assertEquals(0, summary.getCurrent());
+        assertEquals(0, summary.getPast());
+        assertSameAsRecount(summary);
+    }
+
+    @Test
+    void testPhaseChanged_MovesBookingsToCurrentAndPast() {
+        LocalDateTime now = LocalDateTime.now();
+        moveDates(addBooking(now.plusDays(1), now.plusDays(2)), now.minusDays(2), now.minusDays(1));
+        moveDates(addBooking(now.plusDays(3), now.plusDays(4)), now.minusHours(12), now.plusDays(1));
+        addBooking(now.plusDays(5), now.plusDays(6));
+
+        assertEquals(3, bookingCountersService.getOwnerSummary(ownerId).getFuture());
+
+        bookingPhaseEngine.reload();
+        bookingPhaseEngine.tick();
+        BookingSummaryDto summary = bookingCountersService.getOwnerSummary(ownerId);
+
+        assertEquals(3, summary.getAll());
+        assertEquals(1, summary.getPast());
+        assertEquals(1, summary.getCurrent());
+        assertEquals(1, summary.getFuture());
+        assertSameAsRecount(summary);
+    }
+
+    @Test
+    void testRebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = new Booking();
+        booking.setStart(now.minusDays(2));
+        booking.setEnd(now.minusDays(1));
+        booking.setItem(item);
+        booking.setBooker(userRepository.getReferenceById(bookerId));
+        bookingRepository.save(booking);
+
+        bookingCountersService.rebuild();
+        BookingSummaryDto summary = bookingCountersService.getOwnerSummary(ownerId);
+
+        assertEquals(1, summary.getAll());
+        assertEquals(1, summary.getWaiting());
+        assertEquals(1, summary.getPast());
+        assertSameAsRecount(summary);
+    }
+
+    @Test
+    void testSummary_WithoutCountersRow() {
+        User owner = new User();
+        owner.setName("Иванов Иван");
+        owner.setEmail("ii@mail.ru");
+        long otherOwnerId = userRepository.save(owner).getId();
+
+        BookingSummaryDto summary = bookingCountersService.getOwnerSummary(otherOwnerId);
+
+        assertEquals(0, summary.getAll());
+        assertEquals(0, summary.getFuture());
+    }
+
+    @Test
+    void testOwnerDeleted() {
+        bookingCountersService.ownerDeleted(ownerId);
+
+        assertTrue(countersRepository.findSummary(ownerId).isEmpty());
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void testOwnersDoNotBlockEachOther() throws Exception {
+        long otherOwnerId = userService.createUser(new UserDto(null, "Иванов Иван", "ii@mail.ru")).getId();
+        CountDownLatch changed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    bookingCountersService.statusChanged(ownerId, BookingStatus.APPROVED, BookingStatus.WAITING);
+                    changed.countDown();
+                    awaitUninterruptibly(release);
+                }));
+        try {
+            changed.await();
+            // транзакция first не зафиксирована и держит только строку счётчиков ownerId
+            CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status ->
+                            bookingCountersService.statusChanged(otherOwnerId, BookingStatus.APPROVED,
+                                    BookingStatus.WAITING)))
+                    .get(5, TimeUnit.SECONDS);
+            release.countDown();
+            first.join();
+
+            assertEquals(1, countersRepository.findById(ownerId).orElseThrow().getWaitingCount());
+            assertEquals(1, countersRepository.findById(otherOwnerId).orElseThrow().getWaitingCount());
+        } finally {
+            release.countDown();
+            first.join();
+            itemRepository.deleteById(item.getId());
+            userService.deleteUserById(otherOwnerId);
+            userService.deleteUserById(bookerId);
+            userService.deleteUserById(ownerId);
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BookingDto addBooking(LocalDateTime start, LocalDateTime end) {
+        return bookingService.addBooking(bookerId, new BookingRequestDto(item.getId(), start, end, null));
+    }
+
+    private void moveDates(BookingDto bookingDto, LocalDateTime start, LocalDateTime end) {
+        // даты в прошлом сервис не примет, фаза остаётся FUTURE до перехода
+        Booking booking = bookingRepository.findById(bookingDto.getId()).orElseThrow();
+        booking.setStart(start);
+        booking.setEnd(end);
+        bookingRepository.saveAndFlush(booking);
+    }
+
+    private void assertSameAsRecount(BookingSummaryDto summary) {
+        BookingSummaryDto recount = countersRepository.countByOwner(ownerId);
+        assertEquals(recount.getAll(), summary.getAll());
+        assertEquals(recount.getWaiting(), summary.getWaiting());
+        assertEquals(recount.getRejected(), summary.getRejected());
+        assertEquals(recount.getCurrent(), summary.getCurrent());
+        assertEquals(recount.getPast(), summary.getPast());
+        assertEquals(recount.getFuture(), summary.getFuture());
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.transaction.Transactional;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class BookingExportServiceImplIntegrationTest {
+    @Autowired
+    private BookingExportService bookingExportService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ObjectMapper mapper;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @BeforeEach
+    void saveData() {
+        owner = new User();
+        owner.setName("Никодим");
+        owner.setEmail("owner@mail.ru");
+        owner = userRepository.save(owner);
+
+        booker = new User();
+        booker.setName("Петр Петрович");
+        booker.setEmail("booker@mail.ru");
+        booker = userRepository.save(booker);
+
+        item = new Item();
+        item.setName("Дрель, \"ударная\"");
+        item.setDescription("Description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+
+        for (int i = 0; i < 3; i++) {
+            Booking booking = new Booking();
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i + 1));
+            booking.setStatus(BookingStatus.APPROVED);
+            booking.setBooker(booker);
+            booking.setItem(item);
+            bookingRepository.save(booking);
+        }
+    }
+
+    @Test
+    void testExportNdjson() throws IOException {
+        String[] lines = export(BookingExportFormat.NDJSON).split("\n");
+
+        assertEquals(3, lines.length);
+        JsonNode first = mapper.readTree(lines[0]);
+        assertEquals("2030-01-03T12:00:00", first.get("start").asText());
+        assertEquals(item.getName(), first.get("item").get("name").asText());
+        assertEquals(booker.getId(), first.get("booker").get("id").asLong());
+    }
+
+    @Test
+    void testExportCsv() throws IOException {
+        String[] lines = export(BookingExportFormat.CSV).split("\n");
+
+        assertEquals(4, lines.length);
+        assertEquals(BookingExportServiceImpl.CSV_HEADER, lines[0]);
+        assertEquals(",2030-01-03T12:00:00,2030-01-04T12:00:00,APPROVED," + item.getId()
+                        + ",\"Дрель, \"\"ударная\"\"\"," + booker.getId(),
+                lines[1].substring(lines[1].indexOf(',')));
+    }
+
+    @Test
+    void testExportForUnknownUser() {
+        assertThrows(NotFoundException.class,
+                () -> bookingExportService.exportBookingsForAllUserItems(-1L, BookingExportFormat.CSV));
+    }
+
+    private String export(BookingExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingExportService.exportBookingsForAllUserItems(owner.getId(), format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
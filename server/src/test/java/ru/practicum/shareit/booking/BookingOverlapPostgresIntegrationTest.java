@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.sql.DataSource;
+import javax.transaction.Transactional;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка пересечений и ограничение ex_bookings_approved_overlap на настоящем PostgreSQL (профиль
+ * booking-exclusion). Запускается, только если задан адрес базы:
+ * mvn test -Dshareit.test.postgres.url=jdbc:postgresql://localhost:5432/shareit
+ */
+@Transactional
+@EnabledIfSystemProperty(named = "shareit.test.postgres.url", matches = ".+")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.profiles.active=booking-exclusion",
+        "spring.datasource.url=${shareit.test.postgres.url}",
+        "spring.datasource.username=${shareit.test.postgres.username:postgres}",
+        "spring.datasource.password=${shareit.test.postgres.password:}",
+        "shareit.scheduling.enabled=false"})
+public class BookingOverlapPostgresIntegrationTest {
+    @Autowired
+    private BookingOverlapChecker bookingOverlapChecker;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    private final LocalDateTime start = LocalDateTime.now().plusYears(1).withNano(0);
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    void saveItem() {
+        User owner = saveUser("Никодим", "pg-owner@mail.ru");
+        bookerId = saveUser("Петр Петрович", "pg-booker@mail.ru").getId();
+        Item item = new Item();
+        item.setName("Переноска для кота");
+        item.setDescription("Для кота среднего размера");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        itemId = itemRepository.saveAndFlush(item).getId();
+    }
+
+    @Test
+    void usesPostgresCheckerWithInclusiveBounds() {
+        insertBooking(start, start.plusHours(1), BookingStatus.APPROVED);
+        insertBooking(start.plusHours(3), start.plusHours(4), BookingStatus.WAITING);
+
+        assertInstanceOf(PostgresBookingOverlapChecker.class, bookingOverlapChecker);
+        assertTrue(bookingOverlapChecker.isOverlapped(itemId, start.minusHours(1), start));
+        assertTrue(bookingOverlapChecker.isOverlapped(itemId, start.plusHours(1), start.plusHours(2)));
+        assertFalse(bookingOverlapChecker.isOverlapped(itemId, start.plusHours(1).plusSeconds(1),
+                start.plusHours(5)));
+        assertFalse(bookingOverlapChecker.isOverlapped(itemId, start.minusHours(2), start.minusSeconds(1)));
+    }
+
+    @Test
+    void overlapQueryUsesGistIndex() {
+        jdbcTemplate.execute("set local enable_seqscan = off");
+        List<String> plan = jdbcTemplate.queryForList("explain " + BookingRepository.APPROVED_OVERLAP
+                        .replace(":itemId", "?").replace(":start", "?").replace(":end", "?"), String.class,
+                itemId, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)));
+
+        // в профиле booking-exclusion планировщик может взять индекс ограничения, он построен по тем же столбцам
+        String planText = String.join("\n", plan);
+        assertTrue(planText.matches("(?s).*Index Scan using (ix_bookings_approved_period|ex_bookings_approved_overlap)"
+                + ".*"), planText);
+    }
+
+    @Test
+    void exclusionConstraintRejectsOverlappingApprovedBookings() {
+        insertBooking(start, start.plusHours(2), BookingStatus.APPROVED);
+        insertBooking(start.plusHours(1), start.plusHours(3), BookingStatus.WAITING);
+        insertBooking(start.plusHours(2).plusSeconds(1), start.plusHours(3), BookingStatus.APPROVED);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> insertBooking(start.plusHours(2), start.plusHours(4), BookingStatus.APPROVED));
+    }
+
+    @Test
+    void exclusionScriptIsRepeatable() {
+        assertDoesNotThrow(() -> ScriptUtils.executeSqlScript(DataSourceUtils.getConnection(dataSource),
+                new ClassPathResource("schema-booking-exclusion.sql")));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from pg_constraint "
+                + "where conname = 'ex_bookings_approved_overlap'", Integer.class));
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+
+    private void insertBooking(LocalDateTime bookingStart, LocalDateTime bookingEnd, BookingStatus status) {
+        jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status, phase) "
+                        + "values (nextval('bookings_seq'), ?, ?, ?, ?, ?, ?)", Timestamp.valueOf(bookingStart),
+                Timestamp.valueOf(bookingEnd), itemId, bookerId, status.name(), BookingPhase.FUTURE.name());
+    }
+}
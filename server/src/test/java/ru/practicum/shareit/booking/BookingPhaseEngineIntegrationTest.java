@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Transactional
+@RecordApplicationEvents
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class BookingPhaseEngineIntegrationTest {
+    @Autowired
+    private BookingPhaseEngine bookingPhaseEngine;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ApplicationEvents events;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void saveItem() {
+        owner = saveUser("Никодим", "owner@mail.ru");
+        booker = saveUser("Петр Петрович", "booker@mail.ru");
+        item = new Item();
+        item.setName("Переноска для кота");
+        item.setDescription("Для кота среднего размера");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+    }
+
+    @Test
+    void testTick_MovesDueBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking started = saveBooking(now.minusHours(1), now.plusDays(1), BookingPhase.FUTURE);
+        Booking ended = saveBooking(now.minusDays(2), now.minusDays(1), BookingPhase.CURRENT);
+        Booking future = saveBooking(now.plusDays(1), now.plusDays(2), BookingPhase.FUTURE);
+
+        bookingPhaseEngine.reload();
+        bookingPhaseEngine.tick();
+
+        assertEquals(BookingPhase.CURRENT, phaseOf(started));
+        assertEquals(BookingPhase.PAST, phaseOf(ended));
+        assertEquals(BookingPhase.FUTURE, phaseOf(future));
+        List<BookingPhaseChangedEvent> changed = events.stream(BookingPhaseChangedEvent.class)
+                .collect(Collectors.toList());
+        assertEquals(2, changed.size());
+        BookingPhaseChangedEvent event = changed.stream()
+                .filter(e -> e.getBookingId() == started.getId())
+                .findFirst()
+                .orElseThrow();
+        assertEquals(owner.getId(), event.getOwnerId());
+        assertEquals(BookingPhase.FUTURE, event.getFrom());
+        assertEquals(BookingPhase.CURRENT, event.getTo());
+
+        List<BookingDto> current = bookingRepository.findByBooker_IdAndPhase(booker.getId(), BookingPhase.CURRENT,
+                PageRequest.of(0, 10));
+        assertEquals(1, current.size());
+        assertEquals(started.getId(), current.get(0).getId());
+    }
+
+    @Test
+    void testTick_SkipsAlreadyMovedBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = saveBooking(now.minusHours(1), now.plusDays(1), BookingPhase.FUTURE);
+        bookingPhaseEngine.reload();
+        bookingRepository.updatePhase(booking.getId(), BookingPhase.FUTURE, BookingPhase.CURRENT);
+
+        bookingPhaseEngine.tick();
+
+        assertEquals(0, events.stream(BookingPhaseChangedEvent.class).count());
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+
+    private Booking saveBooking(LocalDateTime start, LocalDateTime end, BookingPhase phase) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.APPROVED);
+        booking.setPhase(phase);
+        return bookingRepository.saveAndFlush(booking);
+    }
+
+    private BookingPhase phaseOf(Booking booking) {
+        return bookingRepository.findPeriodsByIdIn(List.of(booking.getId())).get(0).getPhase();
+    }
+}
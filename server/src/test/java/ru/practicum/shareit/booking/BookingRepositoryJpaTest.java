@@ -8,13 +8,18 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 public class BookingRepositoryJpaTest {
@@ -49,7 +54,7 @@ public class BookingRepositoryJpaTest {
     }
 
     @Test
-    void testFindByBooker_IdAndStartBeforeAndEndAfter() {
+    void testFindByBooker_IdAndPhase() {
         Booking current = new Booking();
         current.setItem(item);
         current.setBooker(booker);
@@ -59,8 +64,8 @@ public class BookingRepositoryJpaTest {
         em.persist(current);
         em.flush();
 
-        List<Booking> resultBookings = bookingRepository.findByBooker_IdAndStartBeforeAndEndAfter(booker.getId(),
-                LocalDateTime.now(), LocalDateTime.now(), page);
+        List<BookingDto> resultBookings = bookingRepository.findByBooker_IdAndPhase(booker.getId(),
+                BookingPhase.CURRENT, page);
         assertEquals(1, resultBookings.size());
     }
 
@@ -75,7 +80,7 @@ public class BookingRepositoryJpaTest {
         em.persist(pastBooking);
         em.flush();
 
-        List<Booking> resultBookings = bookingRepository.findByBooker_IdAndEndBefore(booker.getId(),
+        List<BookingDto> resultBookings = bookingRepository.findByBooker_IdAndEndBefore(booker.getId(),
                 LocalDateTime.now(), page);
         assertEquals(1, resultBookings.size());
     }
@@ -91,7 +96,7 @@ public class BookingRepositoryJpaTest {
         em.persist(futureBooking);
         em.flush();
 
-        List<Booking> resultBookings = bookingRepository.findByBooker_IdAndStartAfter(booker.getId(),
+        List<BookingDto> resultBookings = bookingRepository.findByBooker_IdAndStartAfter(booker.getId(),
                 LocalDateTime.now(), page);
         assertEquals(1, resultBookings.size());
     }
@@ -107,7 +112,7 @@ public class BookingRepositoryJpaTest {
         em.persist(rejectedBooking);
         em.flush();
 
-        List<Booking> resultBookings = bookingRepository.findByBooker_IdAndStatus(booker.getId(),
+        List<BookingDto> resultBookings = bookingRepository.findByBooker_IdAndStatus(booker.getId(),
                 BookingStatus.REJECTED, page);
         assertEquals(1, resultBookings.size());
     }
@@ -123,27 +128,33 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        List<Booking> resultBookings = bookingRepository.findByBooker_Id(booker.getId(), page);
+        List<BookingDto> resultBookings = bookingRepository.findByBooker_Id(booker.getId(), page);
         assertEquals(1, resultBookings.size());
     }
 
     @Test
-    void testFindByItem_Id() {
-        Booking booking = new Booking();
-        booking.setItem(item);
-        booking.setBooker(booker);
-        booking.setStatus(BookingStatus.WAITING);
-        booking.setStart(LocalDateTime.now().plusDays(3));
-        booking.setEnd(LocalDateTime.now().plusDays(4));
-        em.persist(booking);
+    void testFindLastAndNextBookingsForItems() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking oldBooking = createBooking(now.minusDays(10));
+        Booking lastBooking = createBooking(now.minusDays(5));
+        Booking rejectedBooking = createBooking(now.minusDays(2));
+        rejectedBooking.setStatus(BookingStatus.REJECTED);
+        Booking nextBooking = createBooking(now.plusDays(2));
+        createBooking(now.plusDays(7));
         em.flush();
 
-        List<Booking> resultBookings = bookingRepository.findByItem_Id(item.getId());
-        assertEquals(1, resultBookings.size());
+        List<Booking> lastBookings = bookingRepository.findLastBookingsForItems(List.of(item.getId()), now);
+        assertEquals(1, lastBookings.size());
+        assertEquals(lastBooking.getId(), lastBookings.get(0).getId());
+
+        List<Booking> nextBookings = bookingRepository.findNextBookingsForItems(List.of(item.getId()), now);
+        assertEquals(1, nextBookings.size());
+        assertEquals(nextBooking.getId(), nextBookings.get(0).getId());
+        assertEquals(booker.getId(), nextBookings.get(0).getBooker().getId());
     }
 
     @Test
-    void testFindByItem_IdInAndEndBefore() {
+    void testFindByItem_Owner_IdAndEndBefore() {
         Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
@@ -153,13 +164,13 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        List<Booking> resultBookings = bookingRepository.findByItem_IdInAndEndBefore(List.of(item.getId()),
+        List<BookingDto> resultBookings = bookingRepository.findByItem_Owner_IdAndEndBefore(item.getOwner().getId(),
                 LocalDateTime.now(), page);
         assertEquals(1, resultBookings.size());
     }
 
     @Test
-    void testFindByItem_IdInAndStartAfter() {
+    void testFindByItem_Owner_IdAndStartAfter() {
         Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
@@ -169,13 +180,13 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        List<Booking> resultBookings = bookingRepository.findByItem_IdInAndStartAfter(List.of(item.getId()),
+        List<BookingDto> resultBookings = bookingRepository.findByItem_Owner_IdAndStartAfter(item.getOwner().getId(),
                 LocalDateTime.now(), page);
         assertEquals(1, resultBookings.size());
     }
 
     @Test
-    void testFindByItem_IdInAndStatus() {
+    void testFindByItem_Owner_IdAndStatus() {
         Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
@@ -185,13 +196,13 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        List<Booking> resultBookings = bookingRepository.findByItem_IdInAndStatus(List.of(item.getId()),
+        List<BookingDto> resultBookings = bookingRepository.findByItem_Owner_IdAndStatus(item.getOwner().getId(),
                 BookingStatus.WAITING, page);
         assertEquals(1, resultBookings.size());
     }
 
     @Test
-    void testFindByItem_IdIn() {
+    void testFindByItem_Owner_Id() {
         Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
@@ -201,10 +212,82 @@ public class BookingRepositoryJpaTest {
         em.persist(booking);
         em.flush();
 
-        List<Booking> resultBookings = bookingRepository.findByItem_IdIn(List.of(item.getId()), page);
+        List<BookingDto> resultBookings = bookingRepository.findByItem_Owner_Id(item.getOwner().getId(), page);
         assertEquals(1, resultBookings.size());
     }
 
+    @Test
+    void testExistsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual() {
+        Booking approved = new Booking();
+        approved.setItem(item);
+        approved.setBooker(booker);
+        approved.setStatus(BookingStatus.APPROVED);
+        approved.setStart(LocalDateTime.now().plusDays(2));
+        approved.setEnd(LocalDateTime.now().plusDays(4));
+        em.persist(approved);
+
+        Booking waiting = new Booking();
+        waiting.setItem(item);
+        waiting.setBooker(booker);
+        waiting.setStatus(BookingStatus.WAITING);
+        waiting.setStart(LocalDateTime.now().plusDays(6));
+        waiting.setEnd(LocalDateTime.now().plusDays(8));
+        em.persist(waiting);
+        em.flush();
+
+        assertTrue(bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(
+                item.getId(), BookingStatus.APPROVED, LocalDateTime.now().plusDays(3), LocalDateTime.now()));
+        assertTrue(bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(
+                item.getId(), BookingStatus.APPROVED, LocalDateTime.now().plusDays(5),
+                LocalDateTime.now().plusDays(3)));
+        assertFalse(bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(
+                item.getId(), BookingStatus.APPROVED, LocalDateTime.now().plusDays(7),
+                LocalDateTime.now().plusDays(5)));
+    }
+
+    @Test
+    void testFindByBookerAfter() {
+        LocalDateTime start = LocalDateTime.now().plusDays(3).withNano(0);
+        Booking first = createBooking(start);
+        Booking second = createBooking(start);
+        Booking third = createBooking(start.minusDays(1));
+        em.flush();
+
+        List<BookingDto> resultBookings = bookingRepository.findByBookerAfter(booker.getId(), start,
+                second.getId(), PageRequest.of(0, 10));
+        assertEquals(List.of(first.getId(), third.getId()),
+                resultBookings.stream().map(BookingDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testStreamByOwner() {
+        LocalDateTime start = LocalDateTime.now().plusDays(3).withNano(0);
+        Booking first = createBooking(start);
+        Booking second = createBooking(start.minusDays(1));
+        em.flush();
+        em.clear();
+
+        try (Stream<Booking> bookings = bookingRepository.streamByOwner(item.getOwner().getId())) {
+            List<Booking> resultBookings = bookings.collect(Collectors.toList());
+            assertEquals(List.of(first.getId(), second.getId()),
+                    resultBookings.stream().map(Booking::getId).collect(Collectors.toList()));
+            assertEquals(item.getName(), resultBookings.get(0).getItem().getName());
+        }
+        try (Stream<Booking> bookings = bookingRepository.streamByOwner(booker.getId())) {
+            assertEquals(0, bookings.count());
+        }
+    }
+
+    private Booking createBooking(LocalDateTime start) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.WAITING);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        return em.persist(booking);
+    }
+
     @AfterEach
     void deleteData() {
         bookingRepository.deleteAll();
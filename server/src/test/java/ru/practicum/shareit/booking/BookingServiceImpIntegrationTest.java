@@ -57,8 +57,8 @@ public class BookingServiceImpIntegrationTest {
         item = itemRepository.save(item);
 
         booking = new Booking();
-        booking.setStart(LocalDateTime.now());
-        booking.setEnd(LocalDateTime.now().plusDays(2));
+        booking.setStart(LocalDateTime.now().withNano(0));
+        booking.setEnd(LocalDateTime.now().withNano(0).plusDays(2));
         booking.setStatus(BookingStatus.APPROVED);
         booking.setBooker(booker);
         booking.setItem(item);
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,6 +8,8 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.exception.ForbiddenException;
@@ -15,6 +18,7 @@ import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
@@ -25,6 +29,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,19 +42,28 @@ public class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private BookingCountersService bookingCountersService;
+    @Mock
+    private BookingPhaseEngine bookingPhaseEngine;
     private User user = createUser();
     private BookingRequestDto bookingRequestDto = new BookingRequestDto(1L,
             LocalDateTime.now(), LocalDateTime.now().plusDays(2), BookingStatus.WAITING);
     private BookingService bookingService;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void initBookingService() {
-        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository);
+        meterRegistry = new SimpleMeterRegistry();
+        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository,
+                new UserExistenceChecker(userRepository), meterRegistry, bookingCountersService,
+                bookingPhaseEngine, new JpaBookingOverlapChecker(bookingRepository),
+                new ApprovedBookingIndex(bookingRepository));
     }
 
     @Test
     void testAddBooking_WithWrongUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
         NotFoundException result = assertThrows(NotFoundException.class,
                 () -> bookingService.addBooking(1L, bookingRequestDto));
         assertEquals(result.getMessage(), "Пользователь с id = 1 не найден.");
@@ -55,7 +71,7 @@ public class BookingServiceImplTest {
 
     @Test
     void testAddBooking_WithWrongItem() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRepository.findByIdAndOwner_IdIsNot(anyLong(), anyLong())).thenReturn(Optional.empty());
         NotFoundException result = assertThrows(NotFoundException.class,
                 () -> bookingService.addBooking(1L, bookingRequestDto));
@@ -64,7 +80,7 @@ public class BookingServiceImplTest {
 
     @Test
     void testAddBooking_WithNotAvailableItem() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         Item item = createItem();
         item.setAvailable(false);
@@ -76,19 +92,38 @@ public class BookingServiceImplTest {
 
     @Test
     void testAddBooking_WithWrongTime() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRepository.findByIdAndOwner_IdIsNot(anyLong(), anyLong())).thenReturn(Optional.of(createItem()));
 
-        Booking booking = createBooking(bookingRequestDto.getStart(), bookingRequestDto.getEnd(), BookingStatus.APPROVED);
-        when(bookingRepository.findByItem_Id(anyLong())).thenReturn(List.of(booking));
+        when(bookingRepository.findPeriodsByItem_IdAndStatusAndEndAfter(anyLong(), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(new BookingPeriod(2L, 1L, bookingRequestDto.getEnd(),
+                        bookingRequestDto.getEnd().plusDays(1), BookingPhase.FUTURE)));
         ValidationException result = assertThrows(ValidationException.class,
                 () -> bookingService.addBooking(1L, bookingRequestDto));
         assertEquals(result.getMessage(), "Данная вещь недоступна для бронирования.");
     }
 
+    @Test
+    void testAddBooking_SchedulesPhaseAfterCommit() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRepository.findByIdAndOwner_IdIsNot(anyLong(), anyLong())).thenReturn(Optional.of(createItem()));
+        Booking booking = createBookingWithItemAndBooker();
+        when(bookingRepository.save(any())).thenReturn(booking);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingService.addBooking(2L, bookingRequestDto);
+            verify(bookingPhaseEngine, never()).schedule(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(bookingPhaseEngine).schedule(booking);
+    }
+
     @Test
     void testApproveOrRejectBooking_ByWrongUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBooking(BookingStatus.WAITING);
         booking.setItem(createItem());
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
@@ -100,7 +135,7 @@ public class BookingServiceImplTest {
 
     @Test
     void testApproveOrRejectBooking_WithWrongStatus() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBooking(BookingStatus.APPROVED);
         booking.setItem(createItem());
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
@@ -112,7 +147,7 @@ public class BookingServiceImplTest {
 
     @Test
     void testApproveOrRejectBooking_WithWrongTime() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBooking(LocalDateTime.now().minusDays(1), LocalDateTime.now().minusDays(1),
                 BookingStatus.WAITING);
         booking.setItem(createItem());
@@ -125,7 +160,7 @@ public class BookingServiceImplTest {
 
     @Test
     void testApproveOrRejectBooking_Approve() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBooking(BookingStatus.WAITING);
         booking.setItem(createItem());
         booking.setBooker(new User());
@@ -133,12 +168,28 @@ public class BookingServiceImplTest {
 
         bookingService.approveOrRejectBooking(1L, 1L, true);
         Mockito.verify(bookingRepository, Mockito.times(1))
-                .save(booking);
+                .saveAndFlush(booking);
+    }
+
+    @Test
+    void testApproveOrRejectBooking_ApproveOverlapped() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        Booking booking = createBooking(BookingStatus.WAITING);
+        booking.setItem(createItem());
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsByItem_IdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(1L,
+                BookingStatus.APPROVED, booking.getEnd(), booking.getStart())).thenReturn(true);
+
+        ValidationException result = assertThrows(ValidationException.class,
+                () -> bookingService.approveOrRejectBooking(1L, 1L, true));
+        assertEquals(result.getMessage(), "Вещь уже забронирована на эти даты.");
+        Mockito.verify(itemRepository).lockById(1L);
+        Mockito.verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void testApproveOrRejectBooking_Reject() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBooking(BookingStatus.WAITING);
         booking.setItem(createItem());
         booking.setBooker(new User());
@@ -146,12 +197,12 @@ public class BookingServiceImplTest {
 
         bookingService.approveOrRejectBooking(1L, 1L, false);
         Mockito.verify(bookingRepository, Mockito.times(1))
-                .save(booking);
+                .saveAndFlush(booking);
     }
 
     @Test
     void testGetBooking_ForbiddenException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
         ForbiddenException result = assertThrows(ForbiddenException.class,
@@ -162,7 +213,7 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetBooking_BookingFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
         BookingDto result = bookingService.getBooking(booking.getBooker().getId(), booking.getId());
@@ -171,11 +222,10 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetBookingsForAllUserItems_BookingStateAll() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
-        Item item = createItem();
-        when(itemRepository.findByOwner_Id(anyLong())).thenReturn(List.of(item));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
-        when(bookingRepository.findByItem_IdIn(any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findByItem_Owner_Id(anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> resultBookings = bookingService.getBookingsForAllUserItems(11L, BookingState.ALL,
                 PageRequest.of(1, 10));
@@ -185,11 +235,9 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetBookingsForAllUserItems_BookingStateCurrent() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
-        Item item = createItem();
-        when(itemRepository.findByOwner_Id(anyLong())).thenReturn(List.of(item));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
-        when(bookingRepository.findByItem_IdInAndStartBeforeAndEndAfter(any(), any(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findByItem_Owner_IdAndPhase(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> resultBookings = bookingService.getBookingsForAllUserItems(11L, BookingState.CURRENT,
                 PageRequest.of(1, 10));
@@ -199,11 +247,9 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetBookingsForAllUserItems_BookingStatePast() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
-        Item item = createItem();
-        when(itemRepository.findByOwner_Id(anyLong())).thenReturn(List.of(item));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
-        when(bookingRepository.findByItem_IdInAndEndBefore(any(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findByItem_Owner_IdAndEndBefore(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> resultBookings = bookingService.getBookingsForAllUserItems(11L, BookingState.PAST,
                 PageRequest.of(1, 10));
@@ -213,11 +259,9 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetBookingsForAllUserItems_BookingStateFuture() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
-        Item item = createItem();
-        when(itemRepository.findByOwner_Id(anyLong())).thenReturn(List.of(item));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
-        when(bookingRepository.findByItem_IdInAndStartAfter(any(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findByItem_Owner_IdAndStartAfter(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> resultBookings = bookingService.getBookingsForAllUserItems(11L, BookingState.FUTURE,
                 PageRequest.of(1, 10));
@@ -227,11 +271,9 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetBookingsForAllUserItems_BookingStateRejected() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
-        Item item = createItem();
-        when(itemRepository.findByOwner_Id(anyLong())).thenReturn(List.of(item));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
-        when(bookingRepository.findByItem_IdInAndStatus(any(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findByItem_Owner_IdAndStatus(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> resultBookings = bookingService.getBookingsForAllUserItems(11L, BookingState.REJECTED,
                 PageRequest.of(1, 10));
@@ -241,11 +283,9 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetBookingsForAllUserItems_BookingStateWaiting() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
-        Item item = createItem();
-        when(itemRepository.findByOwner_Id(anyLong())).thenReturn(List.of(item));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
-        when(bookingRepository.findByItem_IdInAndStatus(any(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findByItem_Owner_IdAndStatus(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> resultBookings = bookingService.getBookingsForAllUserItems(11L, BookingState.WAITING,
                 PageRequest.of(1, 10));
@@ -255,9 +295,9 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetUserBookings_BookingStateCurrent() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
-        when(bookingRepository.findByBooker_IdAndStartBeforeAndEndAfter(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker_IdAndPhase(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> resultBookings = bookingService.getUserBookings(1L, BookingState.CURRENT,
                 PageRequest.of(0, 10));
@@ -267,9 +307,9 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetUserBookings_BookingStatePast() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
-        when(bookingRepository.findByBooker_IdAndEndBefore(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker_IdAndEndBefore(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> resultBookings = bookingService.getUserBookings(1L, BookingState.PAST,
                 PageRequest.of(0, 10));
@@ -279,9 +319,9 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetUserBookings_BookingStateFuture() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
-        when(bookingRepository.findByBooker_IdAndStartAfter(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker_IdAndStartAfter(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> resultBookings = bookingService.getUserBookings(1L, BookingState.FUTURE,
                 PageRequest.of(0, 10));
@@ -291,9 +331,9 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetUserBookings_BookingStateRejected() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
-        when(bookingRepository.findByBooker_IdAndStatus(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker_IdAndStatus(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> resultBookings = bookingService.getUserBookings(1L, BookingState.REJECTED,
                 PageRequest.of(0, 10));
@@ -303,9 +343,9 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetUserBookings_BookingStateWaiting() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
-        when(bookingRepository.findByBooker_IdAndStatus(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker_IdAndStatus(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> resultBookings = bookingService.getUserBookings(1L, BookingState.WAITING,
                 PageRequest.of(0, 10));
@@ -315,9 +355,10 @@ public class BookingServiceImplTest {
 
     @Test
     void testGetUserBookings_BookingStateAll() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Booking booking = createBookingWithItemAndBooker();
-        when(bookingRepository.findByBooker_Id(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker_Id(anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> resultBookings = bookingService.getUserBookings(1L, BookingState.ALL,
                 PageRequest.of(0, 10));
@@ -325,6 +366,48 @@ public class BookingServiceImplTest {
         assertEquals(booking.getId(), resultBookings.get(0).getId());
     }
 
+    @Test
+    void testGetUserBookingsAfterCursor_BookingStateFuture() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        Booking booking = createBookingWithItemAndBooker();
+        BookingCursor after = new BookingCursor(LocalDateTime.now().plusDays(5), 10L);
+        when(bookingRepository.findFutureByBookerAfter(anyLong(), any(), any(), anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
+
+        List<BookingDto> resultBookings = bookingService.getUserBookings(1L, BookingState.FUTURE, after, 10);
+        assertEquals(1, resultBookings.size());
+        assertEquals(booking.getId(), resultBookings.get(0).getId());
+    }
+
+    @Test
+    void testGetBookingsForAllUserItemsAfterCursor_BookingStateWaiting() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        Booking booking = createBookingWithItemAndBooker();
+        BookingCursor after = new BookingCursor(LocalDateTime.now().plusDays(5), 10L);
+        when(bookingRepository.findByOwnerAndStatusAfter(anyLong(), any(), any(), anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
+
+        List<BookingDto> resultBookings = bookingService.getBookingsForAllUserItems(11L, BookingState.WAITING,
+                after, 10);
+        assertEquals(1, resultBookings.size());
+        assertEquals(booking.getId(), resultBookings.get(0).getId());
+    }
+
+    @Test
+    void testGetBookings_TimedByState() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        BookingCursor after = new BookingCursor(LocalDateTime.now().plusDays(5), 10L);
+
+        bookingService.getUserBookings(1L, BookingState.PAST, PageRequest.of(0, 10));
+        bookingService.getUserBookings(1L, BookingState.PAST, PageRequest.of(0, 10));
+        bookingService.getBookingsForAllUserItems(11L, BookingState.WAITING, after, 10);
+
+        assertEquals(2, meterRegistry.get(BookingServiceImpl.QUERY_TIMER)
+                .tags("role", "booker", "state", "PAST", "paging", "offset").timer().count());
+        assertEquals(1, meterRegistry.get(BookingServiceImpl.QUERY_TIMER)
+                .tags("role", "owner", "state", "WAITING", "paging", "cursor").timer().count());
+    }
+
     private Item createItem() {
         Item item = new Item();
         item.setId(1L);
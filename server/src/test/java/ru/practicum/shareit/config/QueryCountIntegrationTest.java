@@ -0,0 +1,248 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.config.QueryCountMatchers.maxQueries;
+
+/**
+ * Данные сохраняются в транзакции теста, а контекст персистентности и кэши очищаются перед каждым запросом,
+ * поэтому число запросов не зависит от порядка тестов и каждая ленивая связь, загруженная по одной строке,
+ * попадает в X-Query-Count.
+ * Вещей, бронирований и отзывов больше одного, чтобы N+1 превышал лимит.
+ * Изменения Hibernate отправляет в БД при фиксации, поэтому запросы на запись проверяются без транзакции теста:
+ * транзакция запроса фиксируется внутри него и вставки попадают в счётчик. Данные такого теста удаляются после него.
+ */
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+public class QueryCountIntegrationTest {
+    private static final int ITEMS = 5;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User owner;
+    private User booker;
+    private User commentator;
+    private List<Item> items = new ArrayList<>();
+    private Booking booking;
+    private ItemRequest itemRequest;
+
+    @BeforeEach
+    void saveData() {
+        transactionTemplate.executeWithoutResult(status -> saveItems());
+    }
+
+    private void saveItems() {
+        owner = saveUser("Никодим", "owner@mail.ru");
+        booker = saveUser("Петр Петрович", "booker@mail.ru");
+        User requestor = saveUser("Иван", "requestor@mail.ru");
+        commentator = saveUser("Ольга", "commentator@mail.ru");
+
+        itemRequest = new ItemRequest();
+        itemRequest.setDescription("Нужна дрель");
+        itemRequest.setRequestor(requestor);
+        em.persist(itemRequest);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = new Item();
+            item.setName("Дрель " + i);
+            item.setDescription("Дрель ударная");
+            item.setAvailable(true);
+            item.setOwner(owner);
+            item.setItemRequest(itemRequest);
+            em.persist(item);
+            items.add(item);
+
+            booking = saveBooking(item, booker, now.minusDays(2), now.minusDays(1));
+            saveBooking(item, commentator, now.plusDays(1), now.plusDays(2));
+            saveComment(item, booker, "Отличная дрель");
+            saveComment(item, commentator, "Шумная");
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void testUserEndpoints() throws Exception {
+        expectMaxQueries("/users", owner, 1);
+        expectMaxQueries("/users/" + owner.getId(), owner, 1);
+    }
+
+    @Test
+    void testItemEndpoints() throws Exception {
+        expectMaxQueries("/items", owner, 5);
+        expectMaxQueries("/items/" + items.get(0).getId(), owner, 5);
+        expectMaxQueries("/items/" + items.get(1).getId(), booker, 3);
+        expectMaxQueries("/items/search?text=дрель", booker, 2);
+    }
+
+    @Test
+    void testBookingEndpoints() throws Exception {
+        expectMaxQueries("/bookings", booker, 2);
+        expectMaxQueries("/bookings/owner?state=PAST", owner, 2);
+        expectMaxQueries("/bookings/" + booking.getId(), booker, 2);
+    }
+
+    @Test
+    void testItemRequestEndpoints() throws Exception {
+        expectMaxQueries("/requests", itemRequest.getRequestor(), 3);
+        expectMaxQueries("/requests/all", owner, 3);
+        expectMaxQueries("/requests/" + itemRequest.getId(), owner, 3);
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void testWriteEndpoints() throws Exception {
+        List<Long> userIds = new ArrayList<>(List.of(owner.getId(), booker.getId(), commentator.getId(),
+                itemRequest.getRequestor().getId()));
+        try {
+            // вставка пользователя и строки его счётчиков через JdbcTemplate (BookingCountersServiceImpl)
+            String user = expectMaxQueries(post("/users"), owner,
+                    Map.of("name", "Новый", "email", "new@mail.ru"), 2);
+            userIds.add(objectMapper.readTree(user).get("id").asLong());
+            expectMaxQueries(patch("/users/" + owner.getId()), owner, Map.of("name", "Никодим Петрович"), 3);
+
+            Map<String, Object> item = Map.of("name", "Перфоратор", "description", "Мощный", "available", true);
+            long itemId = objectMapper.readTree(expectMaxQueries(post("/items"), owner, item, 2)).get("id").asLong();
+            expectMaxQueries(patch("/items/" + itemId), owner, Map.of("description", "Очень мощный"), 3);
+            expectMaxQueries(post("/items/batch"), owner, List.of(item, item, item, item, item), 2);
+            expectMaxQueries(post("/items/" + items.get(0).getId() + "/comment"), booker,
+                    Map.of("text", "Снова отлично"), 4);
+
+            LocalDateTime start = LocalDateTime.now().plusDays(10);
+            String booking = expectMaxQueries(post("/bookings"), booker,
+                    new BookingRequestDto(itemId, start, start.plusDays(1), null), 5);
+            long bookingId = objectMapper.readTree(booking).get("id").asLong();
+            expectMaxQueries(patch("/bookings/" + bookingId).param("approved", "true"), owner, null, 6);
+        } finally {
+            deleteData(userIds);
+        }
+    }
+
+    @Test
+    void testQueriesRecordedAsMetric() throws Exception {
+        expectMaxQueries("/users", owner, 1);
+
+        assertTrue(meterRegistry.get(QueryCountConfig.SUMMARY_NAME).tags("uri", "/users").summary().count() > 0);
+    }
+
+    @Test
+    void testJdbcTemplateQueriesCounted() {
+        QueryCountListener.reset();
+        try {
+            jdbcTemplate.queryForObject("select count(*) from users", Map.of(), Long.class);
+            SqlParameterSource[] batch = SqlParameterSourceUtils.createBatch(
+                    List.of(Map.of("id", owner.getId()), Map.of("id", booker.getId())));
+            jdbcTemplate.batchUpdate("update users set name = name where id = :id", batch);
+
+            // пакет уходит в БД одним вызовом и считается одним запросом
+            assertEquals(2, QueryCountListener.getCount());
+        } finally {
+            QueryCountListener.clear();
+        }
+    }
+
+    private void expectMaxQueries(String path, User user, int max) throws Exception {
+        expectMaxQueries(get(path), user, null, max);
+    }
+
+    private String expectMaxQueries(MockHttpServletRequestBuilder request, User user, Object body, int max)
+            throws Exception {
+        em.clear();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+        }
+        return mvc.perform(request.header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(maxQueries(max))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private void deleteData(List<Long> userIds) {
+        Map<String, List<Long>> users = Map.of("users", userIds);
+        String ownedItems = "(select id from items where owner_id in (:users))";
+        jdbcTemplate.update("delete from comments where item_id in " + ownedItems, users);
+        jdbcTemplate.update("delete from bookings where item_id in " + ownedItems, users);
+        jdbcTemplate.update("delete from items where owner_id in (:users)", users);
+        jdbcTemplate.update("delete from requests where requestor_id in (:users)", users);
+        jdbcTemplate.update("delete from owner_booking_counters where owner_id in (:users)", users);
+        jdbcTemplate.update("delete from users where id in (:users)", users);
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        em.persist(user);
+        return user;
+    }
+
+    private Booking saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.APPROVED);
+        em.persist(booking);
+        return booking;
+    }
+
+    private void saveComment(Item item, User author, String text) {
+        Comment comment = new Comment();
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setText(text);
+        comment.setCreated(LocalDateTime.now());
+        em.persist(comment);
+    }
+}
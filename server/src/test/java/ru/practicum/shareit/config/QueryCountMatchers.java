@@ -0,0 +1,22 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка числа SQL-запросов по заголовку X-Query-Count: если обработчик начал загружать
+ * связи по одной строке (N+1), число запросов вырастет вместе с данными и тест упадёт.
+ */
+public class QueryCountMatchers {
+    public static ResultMatcher maxQueries(int max) {
+        return result -> {
+            String header = result.getResponse().getHeader(QueryCountHeaderAdvice.HEADER);
+            assertNotNull(header, "Нет заголовка " + QueryCountHeaderAdvice.HEADER);
+            int count = Integer.parseInt(header);
+            assertTrue(count <= max, result.getRequest().getRequestURI() + ": ожидалось не больше " + max
+                    + " SQL-запросов, выполнено " + count);
+        };
+    }
+}
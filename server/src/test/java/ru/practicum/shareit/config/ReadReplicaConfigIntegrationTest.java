@@ -0,0 +1,73 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "shareit.datasource.replica.url=jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1;"
+                + "INIT=RUNSCRIPT FROM 'classpath:schema.sql'")
+public class ReadReplicaConfigIntegrationTest {
+    private static final long REPLICA_USER_ID = 1_000_000L;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private UserDto created;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.update("insert into users (id, name, email) values (?, ?, ?)",
+                REPLICA_USER_ID, "Реплика", "replica@mail.ru");
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.update("delete from users where id = ?", REPLICA_USER_ID);
+        if (created != null) {
+            userService.deleteUserById(created.getId());
+        }
+    }
+
+    @Test
+    void testReadOnlyTransactionReadsFromReplica() {
+        UserDto user = userService.findUserById(REPLICA_USER_ID);
+
+        assertEquals("Реплика", user.getName());
+        assertEquals(0, count(primary, REPLICA_USER_ID));
+    }
+
+    @Test
+    void testWriteGoesToPrimary() {
+        created = userService.createUser(new UserDto(null, "Основная", "primary@mail.ru"));
+
+        assertEquals(1, count(primary, created.getId()));
+        assertEquals(0, count(replica, created.getId()));
+        assertThrows(NotFoundException.class, () -> userService.findUserById(created.getId()));
+    }
+
+    private int count(JdbcTemplate jdbcTemplate, long userId) {
+        return jdbcTemplate.queryForObject("select count(*) from users where id = ?", Integer.class, userId);
+    }
+}
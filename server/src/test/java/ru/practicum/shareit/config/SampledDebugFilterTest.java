@@ -0,0 +1,54 @@
+package ru.practicum.shareit.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SampledDebugFilterTest {
+    private final LoggerContext context = new LoggerContext();
+    private final Logger appLogger = context.getLogger("ru.practicum.shareit.item.ItemController");
+    private final Logger otherLogger = context.getLogger("org.hibernate.SQL");
+
+    @Test
+    void testDebugDroppedWhenRateZero() {
+        SampledDebugFilter filter = filter(0);
+
+        assertEquals(FilterReply.DENY, decide(filter, appLogger, Level.DEBUG));
+        assertEquals(FilterReply.DENY, decide(filter, appLogger, Level.TRACE));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, appLogger, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, otherLogger, Level.DEBUG));
+    }
+
+    @Test
+    void testDebugPassesWhenRateOne() {
+        assertEquals(FilterReply.NEUTRAL, decide(filter(1), appLogger, Level.DEBUG));
+    }
+
+    @Test
+    void testDebugSampled() {
+        SampledDebugFilter filter = filter(0.5);
+        int passed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (decide(filter, appLogger, Level.DEBUG) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        assertEquals(5_000, passed, 500);
+    }
+
+    private SampledDebugFilter filter(double rate) {
+        SampledDebugFilter filter = new SampledDebugFilter();
+        filter.setLoggerPrefix("ru.practicum.shareit");
+        filter.setRate(rate);
+        return filter;
+    }
+
+    private FilterReply decide(SampledDebugFilter filter, Logger logger, Level level) {
+        return filter.decide(null, logger, level, "Найдены вещи: {}.", null, null);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SlowQueryLogListenerTest {
+    private final Logger logger = (Logger) LoggerFactory.getLogger("shareit.sql");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void attachAppender() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void testSlowQueryLoggedWithParameters() {
+        jdbcTemplate(new SlowQueryLogListener(Duration.ZERO, 1, 2000))
+                .queryForObject("select ? + ?", Integer.class, 40, 2);
+
+        assertEquals(1, appender.list.size());
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("Query:[\"select ? + ?\"]"), message);
+        assertTrue(message.contains("Params:[(40,2)]"), message);
+        assertTrue(message.contains("Time:"), message);
+    }
+
+    @Test
+    void testFastQueryNotLogged() {
+        jdbcTemplate(new SlowQueryLogListener(Duration.ofMinutes(1), 1, 2000))
+                .queryForObject("select 1", Integer.class);
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void testSlowQueryDroppedBySampling() {
+        JdbcTemplate jdbcTemplate = jdbcTemplate(new SlowQueryLogListener(Duration.ZERO, 0, 2000));
+        for (int i = 0; i < 10; i++) {
+            jdbcTemplate.queryForObject("select 1", Integer.class);
+        }
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void testLongEntryTruncated() {
+        jdbcTemplate(new SlowQueryLogListener(Duration.ZERO, 1, 20))
+                .queryForObject("select 1", Integer.class);
+
+        assertTrue(appender.list.get(0).getFormattedMessage().endsWith("..."));
+    }
+
+    private JdbcTemplate jdbcTemplate(SlowQueryLogListener listener) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slow-query-log");
+        return new JdbcTemplate(ProxyDataSourceBuilder.create(h2).listener(listener).build());
+    }
+}
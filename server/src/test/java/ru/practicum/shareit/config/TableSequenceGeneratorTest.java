@@ -0,0 +1,41 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.user.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+public class TableSequenceGeneratorTest {
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void testIdsAllocatedInBlocks() {
+        long before = nextUserSequenceValue();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            User user = new User();
+            user.setName("Пользователь " + i);
+            user.setEmail("sequence" + i + "@mail.ru");
+            ids.add(em.persistAndGetId(user, Long.class));
+        }
+        em.flush();
+        long after = nextUserSequenceValue();
+
+        assertEquals(120, ids.stream().distinct().count());
+        assertTrue((after - before) / 50 <= 4, "Последовательность вызвана " + (after - before) / 50 + " раз");
+    }
+
+    private long nextUserSequenceValue() {
+        return ((Number) em.getEntityManager().createNativeQuery("select next value for users_seq")
+                .getSingleResult()).longValue();
+    }
+}
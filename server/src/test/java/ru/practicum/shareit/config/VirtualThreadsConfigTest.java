@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VirtualThreadsConfigTest {
+    private static final boolean VIRTUAL_THREADS_SUPPORTED = Runtime.version().feature() >= 21;
+
+    @Test
+    void testNewVirtualThreadPerTaskExecutor() throws Exception {
+        assumeTrue(VIRTUAL_THREADS_SUPPORTED);
+        ExecutorService executor = VirtualThreadsConfig.newVirtualThreadPerTaskExecutor("test-");
+
+        Thread thread = executor.submit(Thread::currentThread).get();
+        executor.shutdown();
+
+        assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+        assertEquals("test-0", thread.getName());
+    }
+
+    @Test
+    void testNewVirtualThreadPerTaskExecutor_UnsupportedJdk() {
+        assumeFalse(VIRTUAL_THREADS_SUPPORTED);
+        IllegalStateException result = assertThrows(IllegalStateException.class,
+                () -> VirtualThreadsConfig.newVirtualThreadPerTaskExecutor("test-"));
+        assertTrue(result.getMessage().startsWith("Виртуальные потоки требуют JDK 21"));
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.importer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.importer.dto.ImportReportDto;
+import ru.practicum.shareit.importer.dto.RejectedRowDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ImportController.class)
+public class ImportControllerTest {
+    @MockBean
+    private ImportService importService;
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    public void importCsv() throws Exception {
+        List<ImportRow> rows = new ArrayList<>();
+        when(importService.importRows(eq(ImportType.USERS), any(), eq(500))).thenAnswer(invocation -> {
+            RowReader reader = invocation.getArgument(1);
+            for (ImportRow row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+            return report(rows.size());
+        });
+
+        mvc.perform(MockMvcRequestBuilders.post("/import/users?chunkSize=500")
+                        .content("name,email\r\n\"Иванов, \"\"Иван\"\"\",ivan@import.ru\r\n\r\nПётр\n"
+                                .getBytes(StandardCharsets.UTF_8))
+                        .contentType("text/csv"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read", is(2)))
+                .andExpect(jsonPath("$.rejectedRows[0].line", is(4)));
+
+        assertEquals("Иванов, \"Иван\"", rows.get(0).required("name"));
+        assertEquals("ivan@import.ru", rows.get(0).required("email"));
+        assertEquals(4, rows.get(1).getLine());
+        assertEquals("Ожидалось полей: 2, получено: 1.", rows.get(1).getError());
+    }
+
+    @Test
+    public void importNdjson() throws Exception {
+        List<ImportRow> rows = new ArrayList<>();
+        when(importService.importRows(eq(ImportType.ITEMS), any(), anyInt())).thenAnswer(invocation -> {
+            RowReader reader = invocation.getArgument(1);
+            for (ImportRow row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+            return report(rows.size());
+        });
+
+        mvc.perform(MockMvcRequestBuilders.post("/import/items")
+                        .content("{\"name\":\"Дрель\",\"available\":true,\"ownerId\":1}\n{oops\n"
+                                .getBytes(StandardCharsets.UTF_8))
+                        .contentType("application/x-ndjson"))
+                .andExpect(status().isOk());
+
+        assertEquals("Дрель", rows.get(0).required("name"));
+        assertEquals(true, rows.get(0).requiredBoolean("available"));
+        assertEquals(1L, rows.get(0).requiredLong("ownerId"));
+        assertEquals(2, rows.get(1).getLine());
+    }
+
+    @Test
+    public void importUnknownType() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/import/comments")
+                        .content("{}")
+                        .contentType("application/x-ndjson"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ImportReportDto report(int read) {
+        ImportReportDto report = new ImportReportDto();
+        report.setRead(read);
+        report.getRejectedRows().add(new RejectedRowDto(4, "Ожидалось полей: 2, получено: 1."));
+        return report;
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.importer.dto.ImportReportDto;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class ImportServiceImplIntegrationTest {
+    @Autowired
+    private ImportService importService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void deleteImported() {
+        jdbcTemplate.update("delete from items where owner_id in " +
+                "(select id from users where email like '%@import.ru')");
+        jdbcTemplate.update("delete from owner_booking_counters where owner_id in " +
+                "(select id from users where email like '%@import.ru')");
+        jdbcTemplate.update("delete from users where email like '%@import.ru'");
+    }
+
+    @Test
+    void testImportUsersAndItems() throws IOException {
+        String users = "id,name,email\n" +
+                "9001,Анна,anna@import.ru\n" +
+                "9002,Без почты,\n" +
+                "9003,Дубль,anna@import.ru\n" +
+                ",Борис,boris@import.ru\n";
+        ImportReportDto usersReport = importService.importRows(ImportType.USERS,
+                new CsvRowReader(new StringReader(users)), 2);
+
+        assertEquals(4, usersReport.getRead());
+        assertEquals(2, usersReport.getImported());
+        assertEquals(2, usersReport.getRejected());
+        assertEquals(3, usersReport.getRejectedRows().get(0).getLine());
+        assertEquals("Поле email должно быть заполнено.", usersReport.getRejectedRows().get(0).getReason());
+        assertEquals("Пользователь с email anna@import.ru уже существует.",
+                usersReport.getRejectedRows().get(1).getReason());
+
+        String items = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true,\"ownerId\":9001}\n" +
+                "{\"name\":\"Лыжи\",\"description\":\"Беговые\",\"available\":false,\"ownerId\":99999}\n" +
+                "не json\n";
+        ImportReportDto itemsReport = importService.importRows(ImportType.ITEMS,
+                new NdjsonRowReader(new BufferedReader(new StringReader(items)), objectMapper), 1000);
+
+        assertEquals(1, itemsReport.getImported());
+        assertEquals(2, itemsReport.getRejected());
+        assertEquals("Поле ownerId: запись в users с id = 99999 не найдена.",
+                itemsReport.getRejectedRows().get(0).getReason());
+        assertEquals(1, itemRepository.findByOwner_Id(9001).size());
+
+        assertTrue(jdbcTemplate.queryForObject("select nextval('users_seq')", Long.class) > 9001);
+    }
+
+    @Test
+    void testImportWithIdsAdvancesSequencePastIssuedBlocks() throws IOException {
+        long issued = jdbcTemplate.queryForObject("select nextval('users_seq')", Long.class);
+        String users = "id,name,email\n" +
+                "9100,Вера,vera@import.ru\n";
+        importService.importRows(ImportType.USERS, new CsvRowReader(new StringReader(users)), 10);
+
+        long next = jdbcTemplate.queryForObject("select nextval('users_seq')", Long.class);
+        // блок значения next - id от next - 49 до next
+        assertTrue(next - 49 > Math.max(issued, 9100));
+    }
+}
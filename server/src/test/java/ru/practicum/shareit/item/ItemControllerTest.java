@@ -9,6 +9,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 
@@ -52,6 +53,25 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.requestId", is(itemShortDto.getRequestId()), Long.class));
     }
 
+    @Test
+    public void addItems() throws Exception {
+        when(itemService.addItems(anyLong(), anyList()))
+                .thenReturn(List.of(new ItemBatchResultDto(0, itemShortDto, null),
+                        new ItemBatchResultDto(1, null, "Имя должно быть заполнено.")));
+
+        mvc.perform(MockMvcRequestBuilders.post("/items/batch")
+                        .header("X-Sharer-User-Id", itemShortDto.getOwnerId())
+                        .content(mapper.writeValueAsString(List.of(itemShortDto, itemShortDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].item.id", is(itemShortDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Имя должно быть заполнено.")));
+    }
+
     @Test
     public void updateItem() throws Exception {
         when(itemService.updateItem(anyLong(), anyLong(), any()))
@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
@@ -14,8 +15,10 @@ import ru.practicum.shareit.user.User;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -47,35 +50,60 @@ public class ItemRepositoryJpaTest {
 
     @Test
     void testFindItemsByTextByName() {
-        List<Item> resultItems = itemRepository.findItemsByText("лыжи", page);
+        List<ItemShortDto> resultItems = itemRepository.findItemsByText("лыжи", page);
 
         assertEquals(resultItems.size(), 1);
-        Item resultItem = resultItems.get(0);
+        ItemShortDto resultItem = resultItems.get(0);
         assertEquals(resultItem.getName(), item.getName());
         assertEquals(resultItem.getDescription(), item.getDescription());
         assertEquals(resultItem.getAvailable(), item.getAvailable());
-        assertEquals(resultItem.getOwner(), item.getOwner());
+        assertEquals(resultItem.getOwnerId(), item.getOwner().getId());
+        assertNull(resultItem.getRequestId());
     }
 
     @Test
     void testFindItemsByTextByDescription() {
-        List<Item> resultItems = itemRepository.findItemsByText("длин", page);
+        List<ItemShortDto> resultItems = itemRepository.findItemsByText("длин", page);
 
         assertEquals(resultItems.size(), 1);
-        Item resultItem = resultItems.get(0);
+        ItemShortDto resultItem = resultItems.get(0);
         assertEquals(resultItem.getName(), item.getName());
         assertEquals(resultItem.getDescription(), item.getDescription());
         assertEquals(resultItem.getAvailable(), item.getAvailable());
-        assertEquals(resultItem.getOwner(), item.getOwner());
+        assertEquals(resultItem.getOwnerId(), item.getOwner().getId());
+        assertNull(resultItem.getRequestId());
     }
 
     @Test
     void testFindItemsByTextWithNoFound() {
-        List<Item> resultItems = itemRepository.findItemsByText("дрель", page);
+        List<ItemShortDto> resultItems = itemRepository.findItemsByText("дрель", page);
 
         assertEquals(resultItems.size(), 0);
     }
 
+    @Test
+    void testFindItemsByTextNameMatchFirst() {
+        Item wax = new Item();
+        wax.setName("Мазь");
+        wax.setDescription("Для беговых лыж");
+        wax.setOwner(owner);
+        wax.setAvailable(true);
+        em.persist(wax);
+
+        Item skis = new Item();
+        skis.setName("Лыжи беговые");
+        skis.setDescription("Длина 180 см");
+        skis.setOwner(owner);
+        skis.setAvailable(true);
+        em.persist(skis);
+        em.flush();
+
+        List<ItemShortDto> resultItems = itemRepository.findItemsByText("лыж", PageRequest.of(0, 3));
+
+        assertEquals(List.of(item.getId(), skis.getId(), wax.getId()),
+                resultItems.stream().map(ItemShortDto::getId).collect(Collectors.toList()));
+    }
+
     @Test
     void testFindByOwner_Id() {
         List<Item> resultItems = itemRepository.findByOwner_Id(owner.getId());
@@ -6,15 +6,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import javax.transaction.Transactional;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @Transactional
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
@@ -27,6 +33,8 @@ public class ItemServiceImplIntegrationTest {
     private UserRepository userRepository;
     @Autowired
     private ItemService itemService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
     private Item item;
 
     private User owner;
@@ -58,4 +66,47 @@ public class ItemServiceImplIntegrationTest {
         assertEquals(item.getAvailable(), result.getAvailable());
         assertEquals(item.getOwner().getId(), result.getOwnerId());
     }
+
+    @Test
+    void testAddItems() {
+        List<ItemShortDto> dtos = List.of(
+                new ItemShortDto(null, "Лопата", "Не ржавая", true, null, null),
+                new ItemShortDto(null, "Грабли", "Новые", false, null, null));
+
+        List<ItemBatchResultDto> results = itemService.addItems(owner.getId(), dtos);
+
+        assertEquals(2, results.size());
+        assertNotNull(results.get(0).getItem().getId());
+        assertEquals(3, itemRepository.findByOwner_Id(owner.getId()).size());
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void testGetItemCachedUntilUpdated() {
+        User viewer = new User();
+        viewer.setEmail("viewer@mail.ru");
+        viewer.setName("Зритель");
+        long viewerId = userRepository.save(viewer).getId();
+        try {
+            assertEquals("Name", itemService.getItem(viewerId, item.getId()).getName());
+
+            item.setName("Changed");
+            item = itemRepository.saveAndFlush(item);
+            assertEquals("Name", itemService.getItem(viewerId, item.getId()).getName());
+
+            transactionTemplate.executeWithoutResult(status -> {
+                itemService.updateItem(owner.getId(), item.getId(),
+                        new ItemShortDto(null, "Updated", null, null, null, null));
+                // чтение между изменением и фиксацией видит старую карточку
+                assertNotEquals("Updated", CompletableFuture.supplyAsync(() ->
+                        itemService.getItem(viewerId, item.getId()).getName()).join());
+            });
+
+            assertEquals("Updated", itemService.getItem(viewerId, item.getId()).getName());
+        } finally {
+            itemRepository.deleteById(item.getId());
+            userRepository.deleteById(viewerId);
+            userRepository.deleteById(owner.getId());
+        }
+    }
 }
@@ -12,22 +12,27 @@ import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.JpaItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,12 +56,13 @@ public class ItemServiceImplTest {
     @BeforeEach
     void initItemService() {
         itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository,
-                itemRequestRepository);
+                itemRequestRepository, new JpaItemSearchEngine(itemRepository),
+                new UserExistenceChecker(userRepository), new ItemViewCache(itemRepository, commentRepository));
     }
 
     @Test
     void testAddItem_WithWrongUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
         NotFoundException result = assertThrows(NotFoundException.class,
                 () -> itemService.addItem(1L, itemShortDto));
         assertEquals(result.getMessage(), "Пользователь с id = 1 не найден.");
@@ -64,7 +70,7 @@ public class ItemServiceImplTest {
 
     @Test
     void testAddItem_WithWrongItemRequest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(createUser()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         itemShortDto.setRequestId(1111L);
         NotFoundException result = assertThrows(NotFoundException.class,
                 () -> itemService.addItem(1L, itemShortDto));
@@ -73,7 +79,7 @@ public class ItemServiceImplTest {
 
     @Test
     void testAddItem() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(createUser()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         ItemShortDto dto = new ItemShortDto(null, "Лопата",
                 "Не ржавая", true, 1L, null);
         when(itemRepository.save(any())).thenReturn(createItemWithUser());
@@ -81,9 +87,43 @@ public class ItemServiceImplTest {
         verify(itemRepository, times(1)).save(any());
     }
 
+    @Test
+    void testAddItems_ReturnsResultPerItem() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(userRepository.getReferenceById(anyLong())).thenReturn(user);
+        when(itemRequestRepository.findAllById(any())).thenReturn(List.of());
+        when(itemRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            items.get(0).setId(5L);
+            return items;
+        });
+        List<ItemShortDto> dtos = List.of(
+                new ItemShortDto(null, "Лопата", "Не ржавая", true, null, null),
+                new ItemShortDto(null, " ", "Без имени", true, null, null),
+                new ItemShortDto(null, "Грабли", "По запросу", true, null, 77L));
+
+        List<ItemBatchResultDto> results = itemService.addItems(1L, dtos);
+
+        assertEquals(3, results.size());
+        assertEquals(5L, results.get(0).getItem().getId());
+        assertNull(results.get(0).getError());
+        assertEquals(1, results.get(1).getIndex());
+        assertEquals("Имя должно быть заполнено.", results.get(1).getError());
+        assertEquals("Запрос с id = 77 не найден.", results.get(2).getError());
+        verify(itemRequestRepository, times(1)).findAllById(Set.of(77L));
+        verify(itemRepository, times(1)).saveAll(argThat(items -> ((List<Item>) items).size() == 1));
+    }
+
+    @Test
+    void testAddItems_WithWrongUser() {
+        when(userRepository.existsById(anyLong())).thenReturn(false);
+        assertThrows(NotFoundException.class, () -> itemService.addItems(1L, List.of(itemShortDto)));
+        verify(itemRepository, never()).saveAll(any());
+    }
+
     @Test
     void testGetItem_WithComment() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Item item = createItemWithUser();
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
@@ -108,7 +148,7 @@ public class ItemServiceImplTest {
 
     @Test
     void testGetItem_ByOwner() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Item item = createItemWithUser();
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
@@ -133,7 +173,8 @@ public class ItemServiceImplTest {
         booking2.setStatus(BookingStatus.APPROVED);
         booking2.setBooker(booker);
 
-        when(bookingRepository.findByItem_Id(anyLong())).thenReturn(List.of(booking1, booking2));
+        when(bookingRepository.findLastBookingsForItems(any(), any())).thenReturn(List.of(booking2));
+        when(bookingRepository.findNextBookingsForItems(any(), any())).thenReturn(List.of(booking1));
 
         ItemDto resultItem = itemService.getItem(user.getId(), item.getId());
 
@@ -151,7 +192,7 @@ public class ItemServiceImplTest {
     void testGetItem_ByNotOwner() {
         User newUser = new User();
         newUser.setId(111L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(newUser));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         Item item = createItemWithUser();
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
@@ -203,7 +244,7 @@ public class ItemServiceImplTest {
 
     @Test
     void testUpdateItem_ItemNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(createUser()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRepository.findByIdAndOwner_Id(anyLong(), anyLong())).thenReturn(Optional.empty());
 
         NotFoundException result = assertThrows(NotFoundException.class,
@@ -213,7 +254,7 @@ public class ItemServiceImplTest {
 
     @Test
     void testUpdateItem_ItemUpdated() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(createUser()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Item item = createItemWithUser();
         when(itemRepository.findByIdAndOwner_Id(anyLong(), anyLong())).thenReturn(Optional.of(item));
         itemService.updateItem(1L, 1L, itemShortDto);
@@ -222,16 +263,17 @@ public class ItemServiceImplTest {
 
     @Test
     void testSearchItems_TextIsBlank() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(createUser()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         List<ItemShortDto> resultItems = itemService.searchItems(1L, "", PageRequest.of(0, 10));
         assertTrue(resultItems.isEmpty());
     }
 
     @Test
     void testSearchItems_FoundItems() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(createUser()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         Item item = createItemWithUser();
-        when(itemRepository.findItemsByText(anyString(), any())).thenReturn(List.of(item));
+        when(itemRepository.findItemsByText(anyString(), any()))
+                .thenReturn(List.of(ItemMapper.toItemShortDto(item)));
         List<ItemShortDto> resultItems = itemService.searchItems(1L, "text", PageRequest.of(0, 10));
         assertEquals(1, resultItems.size());
         assertEquals(item.getId(), resultItems.get(0).getId());
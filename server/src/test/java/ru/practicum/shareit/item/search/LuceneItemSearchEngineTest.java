@@ -0,0 +1,168 @@
+package ru.practicum.shareit.item.search;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LuceneItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @TempDir
+    Path indexPath;
+    private LuceneItemSearchEngine searchEngine;
+    private Item skis;
+    private Item wax;
+    private Item drill;
+
+    @BeforeEach
+    void openIndex() throws IOException {
+        skis = createItem(1L, "Лыжи детские", "Длина 120 см", true);
+        wax = createItem(2L, "Мазь", "Для беговых лыж", true);
+        drill = createItem(3L, "Дрель", "Аккумуляторная", false);
+        List<Item> items = List.of(skis, wax, drill);
+        List<ItemShortDto> dtos = items.stream()
+                .map(item -> new ItemShortDto(item.getId(), item.getName(), item.getDescription(),
+                        item.getAvailable(), 10L, null))
+                .collect(Collectors.toList());
+        lenient().when(itemRepository.findShortDtoByIdGreaterThan(eq(0L), any(Pageable.class)))
+                .thenReturn(dtos.subList(0, 2));
+        lenient().when(itemRepository.findShortDtoByIdGreaterThan(eq(2L), any(Pageable.class)))
+                .thenReturn(dtos.subList(2, 3));
+        lenient().when(itemRepository.findShortDtoByIdGreaterThan(eq(3L), any(Pageable.class)))
+                .thenReturn(List.of());
+        lenient().when(itemRepository.findShortDtoByIdIn(anyCollection())).thenReturn(dtos);
+
+        searchEngine = new LuceneItemSearchEngine(itemRepository, indexPath);
+        searchEngine.open();
+    }
+
+    @AfterEach
+    void closeIndex() throws IOException {
+        searchEngine.close();
+    }
+
+    @Test
+    void testSearchByName() {
+        assertEquals(List.of(1L), ids(searchEngine.search("лыжи", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testSearchByDescription() {
+        assertEquals(List.of(1L), ids(searchEngine.search("ДЛИН", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testSearchNameMatchFirst() {
+        assertEquals(List.of(1L, 2L), ids(searchEngine.search("лыж", PageRequest.of(0, 10))));
+        assertEquals(List.of(2L), ids(searchEngine.search("лыж", PageRequest.of(1, 1))));
+    }
+
+    @Test
+    void testSearchAcrossWords() {
+        assertEquals(List.of(1L), ids(searchEngine.search("жи дет", PageRequest.of(0, 10))));
+        assertTrue(searchEngine.search("жи  дет", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testSearchShortText() {
+        assertEquals(List.of(1L, 2L), ids(searchEngine.search("ЛЫ", PageRequest.of(0, 10))));
+        assertEquals(List.of(2L), ids(searchEngine.search("з", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testSearchTrigramsMustBeConsecutive() {
+        assertTrue(searchEngine.search("лыжидет", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testReindexPagesById() {
+        verify(itemRepository).findShortDtoByIdGreaterThan(eq(0L), any(Pageable.class));
+        verify(itemRepository).findShortDtoByIdGreaterThan(eq(2L), any(Pageable.class));
+        verify(itemRepository).findShortDtoByIdGreaterThan(eq(3L), any(Pageable.class));
+        assertEquals(List.of(2L), ids(searchEngine.search("мазь", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testSearchSkipsUnavailable() {
+        assertTrue(searchEngine.search("дрель", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testIndexUpdatesExistingItem() {
+        drill.setAvailable(true);
+        searchEngine.index(drill);
+
+        assertEquals(List.of(3L), ids(searchEngine.search("дрель", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testExistingIndexIsReused() throws IOException {
+        searchEngine.close();
+        searchEngine = new LuceneItemSearchEngine(itemRepository, indexPath);
+        searchEngine.open();
+
+        verify(itemRepository, times(1)).findShortDtoByIdGreaterThan(eq(0L), any(Pageable.class));
+        assertEquals(List.of(1L), ids(searchEngine.search("лыжи", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testIndexCommitsOnFlush() throws IOException {
+        drill.setAvailable(true);
+        searchEngine.index(drill);
+
+        assertEquals(2, committedAvailableItems());
+        searchEngine.flush();
+        assertEquals(3, committedAvailableItems());
+    }
+
+    private int committedAvailableItems() throws IOException {
+        try (Directory directory = FSDirectory.open(indexPath);
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            return new IndexSearcher(reader).count(new TermQuery(new Term("available", "true")));
+        }
+    }
+
+    private List<Long> ids(List<ItemShortDto> items) {
+        return items.stream().map(ItemShortDto::getId).collect(Collectors.toList());
+    }
+
+    private Item createItem(long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
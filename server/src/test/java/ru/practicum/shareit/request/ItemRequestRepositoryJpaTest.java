@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
@@ -40,13 +41,13 @@ public class ItemRequestRepositoryJpaTest {
 
     @Test
     void testFindByRequestor_Id() {
-        List<ItemRequest> resultRequests = itemRequestRepository.findByRequestor_Id(requestor.getId());
+        List<ItemRequestDto> resultRequests = itemRequestRepository.findByRequestor_Id(requestor.getId());
         assertEquals(1, resultRequests.size());
     }
 
     @Test
     void testFindByRequestor_IdNot_NotFound() {
-        List<ItemRequest> resultRequests = itemRequestRepository.findByRequestor_IdNot(requestor.getId(), page);
+        List<ItemRequestDto> resultRequests = itemRequestRepository.findByRequestor_IdNot(requestor.getId(), page);
         assertEquals(0, resultRequests.size());
     }
 
@@ -64,7 +65,7 @@ public class ItemRequestRepositoryJpaTest {
         em.persist(itemRequest);
         em.flush();
 
-        List<ItemRequest> resultRequests = itemRequestRepository.findByRequestor_IdNot(requestor.getId(), page);
+        List<ItemRequestDto> resultRequests = itemRequestRepository.findByRequestor_IdNot(requestor.getId(), page);
         assertEquals(1, resultRequests.size());
     }
 }
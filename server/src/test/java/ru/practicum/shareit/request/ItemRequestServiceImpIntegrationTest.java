@@ -5,6 +5,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
@@ -25,6 +30,8 @@ public class ItemRequestServiceImpIntegrationTest {
     private ItemRequestService itemRequestService;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
     private User user;
     private ItemRequest itemRequest;
 
@@ -39,7 +46,7 @@ public class ItemRequestServiceImpIntegrationTest {
         itemRequest = new ItemRequest();
         itemRequest.setDescription("Самовар найдись.");
         itemRequest.setRequestor(user);
-        itemRequest.setCreated(LocalDateTime.now());
+        itemRequest.setCreated(LocalDateTime.now().withNano(0));
         itemRequestRepository.save(itemRequest);
     }
 
@@ -52,4 +59,29 @@ public class ItemRequestServiceImpIntegrationTest {
         assertEquals(itemRequest.getDescription(), result.getDescription());
         assertEquals(itemRequest.getCreated(), result.getCreated());
     }
+
+    @Test
+    void testGetOtherItemRequestsWithItems() {
+        User owner = new User();
+        owner.setName("Никодим");
+        owner.setEmail("owner@mail.ru");
+        owner = userRepository.save(owner);
+        Item item = new Item();
+        item.setName("Самовар");
+        item.setDescription("Тульский");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setItemRequest(itemRequest);
+        item = itemRepository.save(item);
+
+        List<ItemRequestDto> resultRequests = itemRequestService.getOtherItemRequests(owner.getId(),
+                PageRequest.of(0, 10).withSort(Sort.Direction.DESC, "created"));
+
+        assertEquals(1, resultRequests.size());
+        assertEquals(1, resultRequests.get(0).getItems().size());
+        ItemShortDto resultItem = resultRequests.get(0).getItems().get(0);
+        assertEquals(item.getId(), resultItem.getId());
+        assertEquals(owner.getId(), resultItem.getOwnerId());
+        assertEquals(itemRequest.getId(), resultItem.getRequestId());
+    }
 }
@@ -13,6 +13,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
@@ -37,12 +38,13 @@ public class ItemRequestServiceImplTest {
 
     @BeforeEach
     void initItemRequestService() {
-        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userRepository, itemRepository);
+        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userRepository, itemRepository,
+                new UserExistenceChecker(userRepository));
     }
 
     @Test
     void testAddRequest_WithWrongUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
         NotFoundException result = assertThrows(NotFoundException.class,
                 () -> itemRequestService.addRequest(1L, new ItemRequestShortDto(1L, "Description",
                         LocalDateTime.now())));
@@ -51,7 +53,7 @@ public class ItemRequestServiceImplTest {
 
     @Test
     void testAddRequest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRequestRepository.save(any())).thenReturn(new ItemRequest());
         itemRequestService.addRequest(1L, new ItemRequestShortDto(null, "Description", null));
         verify(itemRequestRepository, times(1)).save(any());
@@ -59,7 +61,7 @@ public class ItemRequestServiceImplTest {
 
     @Test
     void testGetItemRequest_WithWrongId() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.empty());
         NotFoundException result = assertThrows(NotFoundException.class,
                 () -> itemRequestService.getItemRequest(1L, 1L));
@@ -68,7 +70,7 @@ public class ItemRequestServiceImplTest {
 
     @Test
     void testGetItemRequest_WithoutItem() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         User requestor = new User();
         requestor.setId(1L);
@@ -89,7 +91,7 @@ public class ItemRequestServiceImplTest {
 
     @Test
     void testGetItemRequest_WithItem() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         User requestor = new User();
         requestor.setId(1L);
@@ -126,11 +128,8 @@ public class ItemRequestServiceImplTest {
 
     @Test
     void testGetOtherItemRequests() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
-        ItemRequest itemRequest = new ItemRequest();
-        itemRequest.setId(1L);
-        itemRequest.setDescription("Ищу канистру");
-        itemRequest.setCreated(LocalDateTime.of(2023, 12, 20, 12, 12));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        ItemRequestDto itemRequest = new ItemRequestDto(1L, "Ищу канистру", LocalDateTime.of(2023, 12, 20, 12, 12));
         when(itemRequestRepository.findByRequestor_IdNot(anyLong(), any())).thenReturn(List.of(itemRequest));
 
         List<ItemRequestDto> resultRequests = itemRequestService.getOtherItemRequests(1L, PageRequest.of(1, 10));
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.transaction.Transactional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class UserExistenceCheckerIntegrationTest {
+    @Autowired
+    private UserExistenceChecker userExistenceChecker;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private Cache cache;
+    private User user;
+
+    @BeforeEach
+    void saveUser() {
+        user = new User();
+        user.setName("Кэш Кэшевич");
+        user.setEmail("cache@email.com");
+        user = userRepository.save(user);
+        cache = cacheManager.getCache(UserExistenceChecker.CACHE_NAME);
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    void testExistingUserIsCachedUntilDeleted() {
+        assertTrue(userExistenceChecker.exists(user.getId()));
+        assertNotNull(cache.get(user.getId()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.deleteUserById(user.getId());
+            // чтение между удалением и фиксацией видит пользователя
+            assertTrue(CompletableFuture.supplyAsync(() -> userExistenceChecker.exists(user.getId())).join());
+        });
+
+        assertNull(cache.get(user.getId()));
+        assertFalse(userExistenceChecker.exists(user.getId()));
+    }
+
+    @Test
+    void testMissingUserIsNotCached() {
+        assertFalse(userExistenceChecker.exists(user.getId() + 100));
+        assertNull(cache.get(user.getId() + 100));
+    }
+}
@@ -5,9 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingCountersService;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemViewCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -19,11 +23,18 @@ import static org.mockito.Mockito.*;
 public class UserServiceImpTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private BookingCountersService bookingCountersService;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ItemViewCache itemViewCache;
     private UserService userService;
 
     @BeforeEach
     void initUserService() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, new UserExistenceChecker(userRepository),
+                bookingCountersService, commentRepository, itemViewCache);
     }
 
     @Test
@@ -49,9 +60,12 @@ public class UserServiceImpTest {
 
     @Test
     void testCreateUser() {
-        when(userRepository.save(any())).thenReturn(new User());
+        User user = new User();
+        user.setId(1L);
+        when(userRepository.save(any())).thenReturn(user);
         userService.createUser(new UserDto(null, "Иванов Иван", "ii@mail.ru"));
         verify(userRepository, times(1)).save(any());
+        verify(bookingCountersService, times(1)).ownerCreated(1L);
     }
 
     @Test
@@ -77,9 +91,38 @@ public class UserServiceImpTest {
         assertEquals(user.getName(), result.getName());
     }
 
+    @Test
+    void testUpdateUser_RenameEvictsCommentedItemViews() {
+        User user = new User();
+        user.setId(1L);
+        user.setName("Иванов Иван");
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.save(any())).thenReturn(user);
+        when(commentRepository.findItemIdsByAuthor_Id(1L)).thenReturn(List.of(5L, 7L));
+
+        userService.updateUser(1L, new UserDto(null, "Петров Петр", null));
+
+        verify(itemViewCache).evict(5L);
+        verify(itemViewCache).evict(7L);
+    }
+
+    @Test
+    void testUpdateUser_SameNameKeepsItemViews() {
+        User user = new User();
+        user.setId(1L);
+        user.setName("Иванов Иван");
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.save(any())).thenReturn(user);
+
+        userService.updateUser(1L, new UserDto(null, "Иванов Иван", "new@mail.ru"));
+
+        verifyNoInteractions(commentRepository, itemViewCache);
+    }
+
     @Test
     void testDeleteUserById() {
         userService.deleteUserById(1L);
         verify(userRepository, times(1)).deleteById(1L);
+        verify(bookingCountersService, times(1)).ownerDeleted(1L);
     }
 }